@@ -0,0 +1,267 @@
+package org.igniterealtime.restclient;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the number of requests in flight to a limit that follows the headroom of the server, in the manner of TCP
+ * congestion control (additive increase, multiplicative decrease). While responses arrive about as fast as the fastest
+ * observed, and the limit is actually used, it grows by one per limit's worth of responses. When a response takes more
+ * than twice that long, fails with a 5xx or 429 status, or does not arrive at all, the limit is cut by a tenth, at most
+ * once per limit's worth of responses so one slow burst does not collapse it.
+ * <p>
+ * Requests over the limit wait in arrival order. The fastest latency drifts slowly towards the observed ones, so the
+ * limiter adapts when the server gets permanently slower.
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    /**
+     * The factor applied to the limit when the server is overloaded.
+     */
+    private static final double BACKOFF = 0.9;
+
+    /**
+     * A response slower than the fastest one by this factor signals queueing on the server.
+     */
+    private static final double TOLERANCE = 2.0;
+
+    /**
+     * The share of the gap to a slower response the fastest latency drifts by.
+     */
+    private static final double DRIFT = 0.001;
+
+    /**
+     * The lowest limit.
+     */
+    private final int minLimit;
+
+    /**
+     * The highest limit.
+     */
+    private final int maxLimit;
+
+    /**
+     * Guards the state below.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * The requests waiting for a slot, in arrival order.
+     */
+    private final ArrayDeque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+
+    /**
+     * The current limit.
+     */
+    private double limit;
+
+    /**
+     * The number of requests in flight.
+     */
+    private int inFlight;
+
+    /**
+     * The latency of a request meeting no queue, in nanoseconds, 0 until the first response.
+     */
+    private double noLoadLatency;
+
+    /**
+     * The number of responses since the limit was last cut.
+     */
+    private long sinceDecrease = Integer.MAX_VALUE;
+
+    /**
+     * The number of times the limit was cut.
+     */
+    private final LongAdder decreases = new LongAdder();
+
+    /**
+     * Instantiates a new adaptive concurrency limiter.
+     *
+     * @param minLimit the lowest limit
+     * @param initialLimit the initial limit
+     * @param maxLimit the highest limit
+     */
+    AdaptiveConcurrencyLimiter(int minLimit, int initialLimit, int maxLimit) {
+        if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit) {
+            throw new IllegalArgumentException("The limits must satisfy 1 <= min <= initial <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Requests a slot.
+     *
+     * @return a future completing when the slot is granted
+     */
+    CompletableFuture<Void> acquire() {
+        lock.lock();
+        try {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<Void> waiter = new CompletableFuture<>();
+            waiters.add(waiter);
+            return waiter;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gives back a slot after a response and adjusts the limit.
+     *
+     * @param latency the latency in nanoseconds
+     * @param overloaded whether the outcome signals an overloaded server
+     */
+    void release(long latency, boolean overloaded) {
+        List<CompletableFuture<Void>> granted;
+        lock.lock();
+        try {
+            sinceDecrease++;
+            boolean queued = noLoadLatency > 0 && latency > noLoadLatency * TOLERANCE;
+            if (overloaded || queued) {
+                if (sinceDecrease >= limit) {
+                    limit = Math.max(minLimit, limit * BACKOFF);
+                    sinceDecrease = 0;
+                    decreases.increment();
+                }
+            } else if (inFlight >= limit / 2) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            if (!overloaded) {
+                noLoadLatency = noLoadLatency == 0 || latency < noLoadLatency
+                        ? latency
+                        : noLoadLatency + (latency - noLoadLatency) * DRIFT;
+            }
+            inFlight--;
+            granted = grant();
+        } finally {
+            lock.unlock();
+        }
+        complete(granted);
+    }
+
+    /**
+     * Gives back a slot that was granted but not used.
+     */
+    void abandon() {
+        List<CompletableFuture<Void>> granted;
+        lock.lock();
+        try {
+            inFlight--;
+            granted = grant();
+        } finally {
+            lock.unlock();
+        }
+        complete(granted);
+    }
+
+    /**
+     * Hands free slots to waiting requests. Called with the lock held.
+     *
+     * @return the waiters to complete once the lock is released
+     */
+    private List<CompletableFuture<Void>> grant() {
+        List<CompletableFuture<Void>> granted = new ArrayList<>();
+        while (inFlight < (int) limit && !waiters.isEmpty()) {
+            CompletableFuture<Void> waiter = waiters.poll();
+            if (!waiter.isDone()) {
+                inFlight++;
+                granted.add(waiter);
+            }
+        }
+        return granted;
+    }
+
+    /**
+     * Completes granted waiters, giving back the slots of those cancelled meanwhile.
+     *
+     * @param granted the granted waiters
+     */
+    private void complete(List<CompletableFuture<Void>> granted) {
+        for (CompletableFuture<Void> waiter : granted) {
+            if (!waiter.complete(null)) {
+                abandon();
+            }
+        }
+    }
+
+    /**
+     * Gets the current limit.
+     *
+     * @return the limit
+     */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of requests in flight.
+     *
+     * @return the in flight count
+     */
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of requests waiting for a slot.
+     *
+     * @return the queued count
+     */
+    public int getQueued() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the latency the limiter considers free of queueing.
+     *
+     * @return the no load latency in nanoseconds, 0 until the first response
+     */
+    public long getNoLoadLatency() {
+        lock.lock();
+        try {
+            return (long) noLoadLatency;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of times the limit was cut.
+     *
+     * @return the decrease count
+     */
+    public long getDecreaseCount() {
+        return decreases.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveConcurrencyLimiter [limit=" + getLimit() + ", inFlight=" + getInFlight() + ", queued="
+                + getQueued() + ", noLoadLatency=" + getNoLoadLatency() + ", decreases=" + getDecreaseCount() + "]";
+    }
+}
@@ -0,0 +1,748 @@
+package org.igniterealtime.restclient;
+
+import jakarta.ws.rs.core.Response;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.igniterealtime.restclient.entity.GroupEntities;
+import org.igniterealtime.restclient.entity.GroupEntity;
+import org.igniterealtime.restclient.entity.MUCRoomEntities;
+import org.igniterealtime.restclient.entity.MUCRoomEntity;
+import org.igniterealtime.restclient.entity.ParticipantEntities;
+import org.igniterealtime.restclient.entity.RosterEntities;
+import org.igniterealtime.restclient.entity.RosterItemEntity;
+import org.igniterealtime.restclient.entity.SessionEntities;
+import org.igniterealtime.restclient.entity.SystemProperties;
+import org.igniterealtime.restclient.entity.SystemProperty;
+import org.igniterealtime.restclient.entity.UserEntities;
+import org.igniterealtime.restclient.entity.UserEntity;
+import org.igniterealtime.restclient.entity.UserGroupsEntity;
+
+/**
+ * The Class AsyncRestApiClient. Offers the operations of {@link RestApiClient} without blocking the caller: each
+ * method returns a future completed on the executor service configured on the {@link RestClient}. Failed requests
+ * complete the future exceptionally with the exception the blocking call would throw.
+ */
+public class AsyncRestApiClient {
+
+	/** The rest client. */
+	private final RestClient restClient;
+
+	/** The entity cache, null if entities are not cached. */
+	private final EntityCache cache;
+
+	/**
+	 * Instantiates a new async rest api client.
+	 *
+	 * @param restClient
+	 *                   the rest client
+	 */
+	public AsyncRestApiClient(RestClient restClient) {
+		this(restClient, null);
+	}
+
+	/**
+	 * Instantiates a new async rest api client caching single entities.
+	 *
+	 * @param restClient
+	 *                   the rest client
+	 * @param cache
+	 *                   the entity cache, may be null
+	 */
+	public AsyncRestApiClient(RestClient restClient, EntityCache cache) {
+		this.restClient = restClient;
+		this.cache = cache;
+	}
+
+	/**
+	 * Gets the users.
+	 *
+	 * @return the future users
+	 */
+	public CompletableFuture<UserEntities> getUsers() {
+		return restClient.getAsync(Endpoint.USERS);
+	}
+
+	/**
+	 * Gets the users.
+	 *
+	 * @param queryParams
+	 *                    the query params
+	 * @return the future users
+	 */
+	public CompletableFuture<UserEntities> getUsers(Map<String, String> queryParams) {
+		return restClient.getAsync(Endpoint.USERS, queryParams);
+	}
+
+	/**
+	 * Gets the user.
+	 *
+	 * @param username
+	 *                 the username
+	 * @return the future user
+	 */
+	public CompletableFuture<UserEntity> getUser(String username) {
+		return cached(Endpoint.USER, username, () -> restClient.getAsync(Endpoint.USER, username));
+	}
+
+	/**
+	 * Checks if a user exists without reading it. A missing user is answered with false rather than an
+	 * exception.
+	 *
+	 * @param username
+	 *                 the username
+	 * @return the future result, true if the user exists
+	 */
+	public CompletableFuture<Boolean> userExists(String username) {
+		return exists(Endpoint.USER, username);
+	}
+
+	/**
+	 * Creates the user.
+	 *
+	 * @param userEntity
+	 *                   the user entity
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> createUser(UserEntity userEntity) {
+		return mutate(Endpoint.CREATE_USER, userEntity);
+	}
+
+	/**
+	 * Update user.
+	 *
+	 * @param userEntity
+	 *                   the user entity
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> updateUser(UserEntity userEntity) {
+		return mutate(Endpoint.UPDATE_USER, userEntity, userEntity.getUsername());
+	}
+
+	/**
+	 * Delete user.
+	 *
+	 * @param username
+	 *                 the username
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> deleteUser(String username) {
+		return mutate(Endpoint.DELETE_USER, null, username);
+	}
+
+	/**
+	 * Gets the chat rooms.
+	 *
+	 * @return the future chat rooms
+	 */
+	public CompletableFuture<MUCRoomEntities> getChatRooms() {
+		return restClient.getAsync(Endpoint.CHAT_ROOMS);
+	}
+
+	/**
+	 * Gets the chat rooms.
+	 *
+	 * @param queryParams
+	 *                    the query params
+	 * @return the future chat rooms
+	 */
+	public CompletableFuture<MUCRoomEntities> getChatRooms(Map<String, String> queryParams) {
+		return restClient.getAsync(Endpoint.CHAT_ROOMS, queryParams);
+	}
+
+	/**
+	 * Gets the chat room.
+	 *
+	 * @param roomName
+	 *                 the room name
+	 * @return the future chat room
+	 */
+	public CompletableFuture<MUCRoomEntity> getChatRoom(String roomName) {
+		return cached(Endpoint.CHAT_ROOM, roomName, () -> restClient.getAsync(Endpoint.CHAT_ROOM, roomName));
+	}
+
+	/**
+	 * Checks if a chat room exists without reading it. A missing chat room is answered with false rather than an
+	 * exception.
+	 *
+	 * @param roomName
+	 *                 the room name
+	 * @return the future result, true if the chat room exists
+	 */
+	public CompletableFuture<Boolean> chatRoomExists(String roomName) {
+		return exists(Endpoint.CHAT_ROOM, roomName);
+	}
+
+	/**
+	 * Creates the chat room.
+	 *
+	 * @param chatRoom
+	 *                 the chat room
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> createChatRoom(MUCRoomEntity chatRoom) {
+		return mutate(Endpoint.CREATE_CHAT_ROOM, chatRoom);
+	}
+
+	/**
+	 * Update chat room.
+	 *
+	 * @param chatRoom
+	 *                 the chat room
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> updateChatRoom(MUCRoomEntity chatRoom) {
+		return mutate(Endpoint.UPDATE_CHAT_ROOM, chatRoom, chatRoom.getRoomName());
+	}
+
+	/**
+	 * Delete chat room.
+	 *
+	 * @param roomName
+	 *                 the room name
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> deleteChatRoom(String roomName) {
+		return mutate(Endpoint.DELETE_CHAT_ROOM, null, roomName);
+	}
+
+	/**
+	 * Gets the chat room participants.
+	 *
+	 * @param roomName
+	 *                 the room name
+	 * @return the future chat room participants
+	 */
+	public CompletableFuture<ParticipantEntities> getChatRoomParticipants(String roomName) {
+		return restClient.getAsync(Endpoint.CHAT_ROOM_PARTICIPANTS, roomName);
+	}
+
+	/**
+	 * Adds the owner.
+	 *
+	 * @param roomName
+	 *                 the room name
+	 * @param jid
+	 *                 the jid
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> addOwner(String roomName, String jid) {
+		return mutate(Endpoint.ADD_OWNER, null, roomName, jid);
+	}
+
+	/**
+	 * Delete owner from chatroom.
+	 *
+	 * @param roomName
+	 *                 the room name
+	 * @param jid
+	 *                 the jid
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> deleteOwner(String roomName, String jid) {
+		return mutate(Endpoint.DELETE_OWNER, null, roomName, jid);
+	}
+
+	/**
+	 * Adds the admin.
+	 *
+	 * @param roomName
+	 *                 the room name
+	 * @param jid
+	 *                 the jid
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> addAdmin(String roomName, String jid) {
+		return mutate(Endpoint.ADD_ADMIN, null, roomName, jid);
+	}
+
+	/**
+	 * Delete admin from chatroom.
+	 *
+	 * @param roomName
+	 *                 the room name
+	 * @param jid
+	 *                 the jid
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> deleteAdmin(String roomName, String jid) {
+		return mutate(Endpoint.DELETE_ADMIN, null, roomName, jid);
+	}
+
+	/**
+	 * Adds the member.
+	 *
+	 * @param roomName
+	 *                 the room name
+	 * @param jid
+	 *                 the jid
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> addMember(String roomName, String jid) {
+		return mutate(Endpoint.ADD_MEMBER, null, roomName, jid);
+	}
+
+	/**
+	 * Delete member from chatroom.
+	 *
+	 * @param roomName
+	 *                 the room name
+	 * @param jid
+	 *                 the jid
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> deleteMember(String roomName, String jid) {
+		return mutate(Endpoint.DELETE_MEMBER, null, roomName, jid);
+	}
+
+	/**
+	 * Adds the outcast.
+	 *
+	 * @param roomName
+	 *                 the room name
+	 * @param jid
+	 *                 the jid
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> addOutcast(String roomName, String jid) {
+		return mutate(Endpoint.ADD_OUTCAST, null, roomName, jid);
+	}
+
+	/**
+	 * Delete outcast from chatroom.
+	 *
+	 * @param roomName
+	 *                 the room name
+	 * @param jid
+	 *                 the jid
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> deleteOutcast(String roomName, String jid) {
+		return mutate(Endpoint.DELETE_OUTCAST, null, roomName, jid);
+	}
+
+	/**
+	 * Adds the owner group.
+	 *
+	 * @param roomName
+	 *                  the room name
+	 * @param groupName
+	 *                  the groupName
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> addOwnerGroup(String roomName, String groupName) {
+		return mutate(Endpoint.ADD_OWNER_GROUP, null, roomName, groupName);
+	}
+
+	/**
+	 * Delete owner group from chatroom.
+	 *
+	 * @param roomName
+	 *                  the room name
+	 * @param groupName
+	 *                  the groupName
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> deleteOwnerGroup(String roomName, String groupName) {
+		return mutate(Endpoint.DELETE_OWNER_GROUP, null, roomName, groupName);
+	}
+
+	/**
+	 * Adds the group admin.
+	 *
+	 * @param roomName
+	 *                  the room name
+	 * @param groupName
+	 *                  the groupName
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> addAdminGroup(String roomName, String groupName) {
+		return mutate(Endpoint.ADD_ADMIN_GROUP, null, roomName, groupName);
+	}
+
+	/**
+	 * Delete admin group from chatroom.
+	 *
+	 * @param roomName
+	 *                  the room name
+	 * @param groupName
+	 *                  the groupName
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> deleteAdminGroup(String roomName, String groupName) {
+		return mutate(Endpoint.DELETE_ADMIN_GROUP, null, roomName, groupName);
+	}
+
+	/**
+	 * Adds the group member.
+	 *
+	 * @param roomName
+	 *                  the room name
+	 * @param groupName
+	 *                  the groupName
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> addMemberGroup(String roomName, String groupName) {
+		return mutate(Endpoint.ADD_MEMBER_GROUP, null, roomName, groupName);
+	}
+
+	/**
+	 * Delete member group from chatroom.
+	 *
+	 * @param roomName
+	 *                  the room name
+	 * @param groupName
+	 *                  the groupName
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> deleteMemberGroup(String roomName, String groupName) {
+		return mutate(Endpoint.DELETE_MEMBER_GROUP, null, roomName, groupName);
+	}
+
+	/**
+	 * Adds the group outcast.
+	 *
+	 * @param roomName
+	 *                  the room name
+	 * @param groupName
+	 *                  the groupName
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> addOutcastGroup(String roomName, String groupName) {
+		return mutate(Endpoint.ADD_OUTCAST_GROUP, null, roomName, groupName);
+	}
+
+	/**
+	 * Delete outcast group from chatroom.
+	 *
+	 * @param roomName
+	 *                  the room name
+	 * @param groupName
+	 *                  the groupName
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> deleteOutcastGroup(String roomName, String groupName) {
+		return mutate(Endpoint.DELETE_OUTCAST_GROUP, null, roomName, groupName);
+	}
+
+	/**
+	 * Gets the sessions.
+	 *
+	 * @return the future sessions
+	 */
+	public CompletableFuture<SessionEntities> getSessions() {
+		return restClient.getAsync(Endpoint.SESSIONS);
+	}
+
+	/**
+	 * Gets the sessions.
+	 *
+	 * @param username
+	 *                 the username
+	 * @return the future sessions
+	 */
+	public CompletableFuture<SessionEntities> getSessions(String username) {
+		return restClient.getAsync(Endpoint.USER_SESSIONS, username);
+	}
+
+	/**
+	 * Close all user sessions.
+	 *
+	 * @param username the username
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> deleteSessions(String username) {
+		return mutate(Endpoint.DELETE_USER_SESSIONS, null, username);
+	}
+
+	/**
+	 * Gets the user groups.
+	 *
+	 * @param username
+	 *                 the username
+	 * @return the future user groups
+	 */
+	public CompletableFuture<UserGroupsEntity> getUserGroups(String username) {
+		return cached(Endpoint.USER_GROUPS, username, () -> restClient.getAsync(Endpoint.USER_GROUPS, username));
+	}
+
+	/**
+	 * Adds the user to groups.
+	 *
+	 * @param username
+	 *                         the username
+	 * @param userGroupsEntity
+	 *                         the user groups entity
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> addUserToGroups(String username, UserGroupsEntity userGroupsEntity) {
+		return mutate(Endpoint.ADD_USER_TO_GROUPS, userGroupsEntity, username);
+	}
+
+	/**
+	 * Adds the user to group.
+	 *
+	 * @param username  the username
+	 * @param groupName the group name
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> addUserToGroup(String username, String groupName) {
+		return mutate(Endpoint.ADD_USER_TO_GROUP, null, username, groupName);
+	}
+
+	/**
+	 * Delete user from group.
+	 *
+	 * @param username  the username
+	 * @param groupName the group name
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> deleteUserFromGroup(String username, String groupName) {
+		return mutate(Endpoint.DELETE_USER_FROM_GROUP, null, username, groupName);
+	}
+
+	/**
+	 * Lockout user.
+	 *
+	 * @param username
+	 *                 the username
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> lockoutUser(String username) {
+		return mutate(Endpoint.LOCKOUT_USER, null, username);
+	}
+
+	/**
+	 * Unlock user.
+	 *
+	 * @param username
+	 *                 the username
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> unlockUser(String username) {
+		return mutate(Endpoint.UNLOCK_USER, null, username);
+	}
+
+	/**
+	 * Gets the system properties.
+	 *
+	 * @return the future system properties
+	 */
+	public CompletableFuture<SystemProperties> getSystemProperties() {
+		return restClient.getAsync(Endpoint.SYSTEM_PROPERTIES);
+	}
+
+	/**
+	 * Gets the system property.
+	 *
+	 * @param propertyName
+	 *                     the property name
+	 * @return the future system property
+	 */
+	public CompletableFuture<SystemProperty> getSystemProperty(String propertyName) {
+		return cached(Endpoint.SYSTEM_PROPERTY, propertyName,
+				() -> restClient.getAsync(Endpoint.SYSTEM_PROPERTY, propertyName));
+	}
+
+	/**
+	 * Creates the system property.
+	 *
+	 * @param property
+	 *                 the property
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> createSystemProperty(SystemProperty property) {
+		return mutate(Endpoint.CREATE_SYSTEM_PROPERTY, property);
+	}
+
+	/**
+	 * Update system property.
+	 *
+	 * @param property
+	 *                 the property
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> updateSystemProperty(SystemProperty property) {
+		return mutate(Endpoint.UPDATE_SYSTEM_PROPERTY, property, property.getKey());
+	}
+
+	/**
+	 * Delete system property.
+	 *
+	 * @param propertyName
+	 *                     the property name
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> deleteSystemProperty(String propertyName) {
+		return mutate(Endpoint.DELETE_SYSTEM_PROPERTY, null, propertyName);
+	}
+
+	/**
+	 * Gets the groups.
+	 *
+	 * @return the future groups
+	 */
+	public CompletableFuture<GroupEntities> getGroups() {
+		return restClient.getAsync(Endpoint.GROUPS);
+	}
+
+	/**
+	 * Gets the group.
+	 *
+	 * @param groupName
+	 *                  the group name
+	 * @return the future group
+	 */
+	public CompletableFuture<GroupEntity> getGroup(String groupName) {
+		return cached(Endpoint.GROUP, groupName, () -> restClient.getAsync(Endpoint.GROUP, groupName));
+	}
+
+	/**
+	 * Checks if a group exists without reading it. A missing group is answered with false rather than an
+	 * exception.
+	 *
+	 * @param groupName
+	 *                  the groupName
+	 * @return the future result, true if the group exists
+	 */
+	public CompletableFuture<Boolean> groupExists(String groupName) {
+		return exists(Endpoint.GROUP, groupName);
+	}
+
+	/**
+	 * Creates the group.
+	 *
+	 * @param group
+	 *              the group
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> createGroup(GroupEntity group) {
+		return mutate(Endpoint.CREATE_GROUP, group);
+	}
+
+	/**
+	 * Update group.
+	 *
+	 * @param group
+	 *              the group
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> updateGroup(GroupEntity group) {
+		return mutate(Endpoint.UPDATE_GROUP, group, group.getName());
+	}
+
+	/**
+	 * Delete group.
+	 *
+	 * @param groupName
+	 *                  the group name
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> deleteGroup(String groupName) {
+		return mutate(Endpoint.DELETE_GROUP, null, groupName);
+	}
+
+	/**
+	 * Gets the roster.
+	 *
+	 * @param username
+	 *                 the username
+	 * @return the future roster
+	 */
+	public CompletableFuture<RosterEntities> getRoster(String username) {
+		return restClient.getAsync(Endpoint.ROSTER, username);
+	}
+
+	/**
+	 * Adds the roster entry.
+	 *
+	 * @param username
+	 *                         the username
+	 * @param rosterItemEntity
+	 *                         the roster item entity
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> addRosterEntry(String username, RosterItemEntity rosterItemEntity) {
+		return mutate(Endpoint.ADD_ROSTER_ENTRY, rosterItemEntity, username);
+	}
+
+	/**
+	 * Update roster entry.
+	 *
+	 * @param username
+	 *                         the username
+	 * @param rosterItemEntity
+	 *                         the roster item entity
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> updateRosterEntry(String username, RosterItemEntity rosterItemEntity) {
+		return mutate(Endpoint.UPDATE_ROSTER_ENTRY, rosterItemEntity, username, rosterItemEntity.getJid());
+	}
+
+	/**
+	 * Delete roster entry.
+	 *
+	 * @param username
+	 *                 the username
+	 * @param jid
+	 *                 the jid
+	 * @return the future response
+	 */
+	public CompletableFuture<Response> deleteRosterEntry(String username, String jid) {
+		return mutate(Endpoint.DELETE_ROSTER_ENTRY, null, username, jid);
+	}
+
+	/**
+	 * Gets the rest client.
+	 *
+	 * @return the rest client
+	 */
+	public RestClient getRestClient() {
+		return restClient;
+	}
+
+	/**
+	 * Reads an entity through the cache, if any.
+	 *
+	 * @param <T> the entity type
+	 * @param endpoint the endpoint
+	 * @param key the key
+	 * @param loader the loader
+	 * @return the future entity
+	 */
+	private <T> CompletableFuture<T> cached(Endpoint endpoint, String key, Supplier<CompletableFuture<T>> loader) {
+		return cache != null ? cache.getAsync(endpoint, key, loader) : loader.get();
+	}
+
+	/**
+	 * Checks if a key exists through the cache, if any.
+	 *
+	 * @param endpoint the endpoint
+	 * @param key the key
+	 * @return the future result, true if the key exists
+	 */
+	private CompletableFuture<Boolean> exists(Endpoint endpoint, String key) {
+		if (cache != null) {
+			return cache.existsAsync(endpoint, key, () -> restClient.existsAsync(endpoint, key));
+		}
+		return restClient.existsAsync(endpoint, key);
+	}
+
+	/**
+	 * Calls an endpoint changing data and invalidates the cached entities it affects once the call completes.
+	 *
+	 * @param endpoint the endpoint
+	 * @param payload the payload
+	 * @param pathParams the path params
+	 * @return the future response
+	 */
+	private CompletableFuture<Response> mutate(Endpoint endpoint, Object payload, String... pathParams) {
+		CompletableFuture<Response> response = restClient.callAsync(endpoint, payload, null, pathParams);
+		if (cache == null) {
+			return response;
+		}
+		return response.whenComplete((result, error) -> cache.invalidate(endpoint, payload, pathParams));
+	}
+
+}
@@ -0,0 +1,437 @@
+package org.igniterealtime.restclient;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.core.Response;
+
+import org.igniterealtime.restclient.exception.CircuitBreakerOpenException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stops sending requests of an endpoint family while too many of them fail or are slow. A closed breaker records the
+ * outcome of the most recent calls; once enough calls were made and the share of failed (5xx status or no response)
+ * or slow ones reaches its threshold, it opens. An open breaker fails every call at once with a
+ * {@link CircuitBreakerOpenException}. After the open duration it turns half open and lets a few trial calls through:
+ * if they stay below the thresholds the breaker closes with a fresh window, otherwise it opens again.
+ */
+public final class CircuitBreaker {
+
+    /**
+     * The Constant LOG.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    /**
+     * The state of a circuit breaker.
+     */
+    public enum State {
+
+        /** Calls go through and their outcomes are recorded. */
+        CLOSED,
+
+        /** Calls fail at once. */
+        OPEN,
+
+        /** A limited number of trial calls go through. */
+        HALF_OPEN
+    }
+
+    /**
+     * The outcome flag of a failed call.
+     */
+    private static final byte FAILED = 1;
+
+    /**
+     * The outcome flag of a slow call.
+     */
+    private static final byte SLOW = 2;
+
+    /**
+     * The endpoint family.
+     */
+    private final EndpointFamily family;
+
+    /**
+     * The config.
+     */
+    private final CircuitBreakerConfig config;
+
+    /**
+     * The slow call duration in nanoseconds.
+     */
+    private final long slowCallNanos;
+
+    /**
+     * Guards the state below.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * The outcomes of the most recent calls, as a ring.
+     */
+    private final byte[] window;
+
+    /**
+     * The number of outcomes in the window.
+     */
+    private int size;
+
+    /**
+     * The index of the next outcome in the window.
+     */
+    private int next;
+
+    /**
+     * The number of failed calls in the window.
+     */
+    private int failures;
+
+    /**
+     * The number of slow calls in the window.
+     */
+    private int slowCalls;
+
+    /**
+     * The state.
+     */
+    private State state = State.CLOSED;
+
+    /**
+     * The time the breaker opened, from {@link System#nanoTime()}.
+     */
+    private long openedAt;
+
+    /**
+     * The number of trial calls let through since the breaker turned half open.
+     */
+    private int trialCalls;
+
+    /**
+     * The number of calls rejected while open.
+     */
+    private final LongAdder notPermitted = new LongAdder();
+
+    /**
+     * The number of state transitions.
+     */
+    private final LongAdder transitions = new LongAdder();
+
+    /**
+     * Instantiates a new circuit breaker.
+     *
+     * @param family the endpoint family
+     * @param config the config
+     */
+    CircuitBreaker(EndpointFamily family, CircuitBreakerConfig config) {
+        this.family = family;
+        this.config = config;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(config.getSlowCallDuration());
+        this.window = new byte[Math.max(config.getWindowSize(), config.getHalfOpenCalls())];
+    }
+
+    /**
+     * Asks permission to send a call. Every permitted call must be followed by {@link #record} or {@link #release}.
+     *
+     * @throws CircuitBreakerOpenException if the breaker is open, or half open with all trial calls taken
+     */
+    void acquirePermission() {
+        CircuitBreakerEvent event = null;
+        lock.lock();
+        try {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openedAt < TimeUnit.MILLISECONDS.toNanos(config.getOpenDuration())) {
+                    notPermitted.increment();
+                    throw new CircuitBreakerOpenException(family);
+                }
+                event = transition(State.HALF_OPEN);
+            }
+            if (state == State.HALF_OPEN) {
+                if (trialCalls >= config.getHalfOpenCalls()) {
+                    notPermitted.increment();
+                    throw new CircuitBreakerOpenException(family);
+                }
+                trialCalls++;
+            }
+        } finally {
+            lock.unlock();
+            publish(event);
+        }
+    }
+
+    /**
+     * Gives back a permission whose call was never sent.
+     */
+    void release() {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN && trialCalls > 0) {
+                trialCalls--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sends a permitted call and records its outcome.
+     *
+     * @param call the call
+     * @return the response
+     */
+    Response record(Supplier<Response> call) {
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = call.get();
+        } catch (RuntimeException e) {
+            onResult(System.nanoTime() - start, isFailure(e));
+            throw e;
+        }
+        onResult(System.nanoTime() - start, response.getStatus() >= 500);
+        return response;
+    }
+
+    /**
+     * Sends a permitted call asynchronously and records its outcome.
+     *
+     * @param call the call
+     * @return the response stage
+     */
+    CompletionStage<Response> recordAsync(Supplier<CompletionStage<Response>> call) {
+        long start = System.nanoTime();
+        CompletionStage<Response> stage;
+        try {
+            stage = call.get();
+        } catch (RuntimeException e) {
+            onResult(System.nanoTime() - start, isFailure(e));
+            return CompletableFuture.failedFuture(e);
+        }
+        return stage.whenComplete((response, e) -> onResult(System.nanoTime() - start,
+                e != null ? isFailure(e) : response.getStatus() >= 500));
+    }
+
+    /**
+     * Checks if an exception counts as a failed call.
+     *
+     * @param e the exception
+     * @return true, if no response was received
+     */
+    private static boolean isFailure(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return cause instanceof ProcessingException;
+    }
+
+    /**
+     * Records the outcome of a call and moves between states.
+     *
+     * @param latency the latency in nanoseconds
+     * @param failed whether the call failed
+     */
+    private void onResult(long latency, boolean failed) {
+        byte outcome = (byte) ((failed ? FAILED : 0) | (latency >= slowCallNanos ? SLOW : 0));
+        CircuitBreakerEvent event = null;
+        lock.lock();
+        try {
+            if (state == State.OPEN) {
+                return;
+            }
+            add(outcome);
+            if (state == State.HALF_OPEN) {
+                if (size >= config.getHalfOpenCalls()) {
+                    event = exceedsThresholds() ? open() : transition(State.CLOSED);
+                }
+            } else if (size >= config.getMinimumCalls() && exceedsThresholds()) {
+                event = open();
+            }
+        } finally {
+            lock.unlock();
+            publish(event);
+        }
+    }
+
+    /**
+     * Adds an outcome to the window. Called with the lock held.
+     *
+     * @param outcome the outcome flags
+     */
+    private void add(byte outcome) {
+        int capacity = state == State.HALF_OPEN ? config.getHalfOpenCalls() : config.getWindowSize();
+        if (size == capacity) {
+            byte evicted = window[next];
+            failures -= evicted & FAILED;
+            slowCalls -= (evicted & SLOW) >> 1;
+        } else {
+            size++;
+        }
+        window[next] = outcome;
+        next = (next + 1) % capacity;
+        failures += outcome & FAILED;
+        slowCalls += (outcome & SLOW) >> 1;
+    }
+
+    /**
+     * Checks if the window reaches a threshold. Called with the lock held.
+     *
+     * @return true, if the breaker should open
+     */
+    private boolean exceedsThresholds() {
+        return failureRate() >= config.getFailureRateThreshold()
+                || slowCallRate() >= config.getSlowCallRateThreshold();
+    }
+
+    /**
+     * Opens the breaker. Called with the lock held.
+     *
+     * @return the event
+     */
+    private CircuitBreakerEvent open() {
+        openedAt = System.nanoTime();
+        return transition(State.OPEN);
+    }
+
+    /**
+     * Moves to a state and starts a fresh window. Called with the lock held.
+     *
+     * @param to the new state
+     * @return the event
+     */
+    private CircuitBreakerEvent transition(State to) {
+        CircuitBreakerEvent event = new CircuitBreakerEvent(family, state, to, failureRate(), slowCallRate(),
+                System.currentTimeMillis());
+        state = to;
+        size = 0;
+        next = 0;
+        failures = 0;
+        slowCalls = 0;
+        trialCalls = 0;
+        transitions.increment();
+        return event;
+    }
+
+    /**
+     * Logs a transition and hands it to the listener, outside the lock.
+     *
+     * @param event the event, may be null
+     */
+    private void publish(CircuitBreakerEvent event) {
+        if (event == null) {
+            return;
+        }
+        if (event.getTo() == State.OPEN) {
+            LOG.warn("Circuit breaker of {} opened: failureRate={}, slowCallRate={}", family,
+                    event.getFailureRate(), event.getSlowCallRate());
+        } else {
+            LOG.info("Circuit breaker of {} is {}", family, event.getTo());
+        }
+        Consumer<? super CircuitBreakerEvent> listener = config.getListener();
+        if (listener != null) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                LOG.warn("Circuit breaker listener failed", e);
+            }
+        }
+    }
+
+    /**
+     * Gets the failure rate of the window. Called with the lock held.
+     *
+     * @return the failure rate
+     */
+    private double failureRate() {
+        return size == 0 ? 0 : (double) failures / size;
+    }
+
+    /**
+     * Gets the slow call rate of the window. Called with the lock held.
+     *
+     * @return the slow call rate
+     */
+    private double slowCallRate() {
+        return size == 0 ? 0 : (double) slowCalls / size;
+    }
+
+    /**
+     * Gets the endpoint family.
+     *
+     * @return the family
+     */
+    public EndpointFamily getFamily() {
+        return family;
+    }
+
+    /**
+     * Gets the state. An open breaker whose open duration is over reports OPEN until the next call turns it half open.
+     *
+     * @return the state
+     */
+    public State getState() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the share of failed calls among the recorded ones of the current state.
+     *
+     * @return the failure rate, between 0 and 1
+     */
+    public double getFailureRate() {
+        lock.lock();
+        try {
+            return failureRate();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the share of slow calls among the recorded ones of the current state.
+     *
+     * @return the slow call rate, between 0 and 1
+     */
+    public double getSlowCallRate() {
+        lock.lock();
+        try {
+            return slowCallRate();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of calls rejected without being sent.
+     *
+     * @return the not permitted count
+     */
+    public long getNotPermittedCount() {
+        return notPermitted.sum();
+    }
+
+    /**
+     * Gets the number of state transitions.
+     *
+     * @return the transition count
+     */
+    public long getTransitionCount() {
+        return transitions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreaker [family=" + family + ", state=" + getState() + ", failureRate=" + getFailureRate()
+                + ", slowCallRate=" + getSlowCallRate() + ", notPermitted=" + getNotPermittedCount() + "]";
+    }
+}
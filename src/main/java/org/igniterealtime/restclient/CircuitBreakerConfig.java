@@ -0,0 +1,302 @@
+package org.igniterealtime.restclient;
+
+import java.util.function.Consumer;
+
+/**
+ * The Class CircuitBreakerConfig.
+ */
+public final class CircuitBreakerConfig {
+
+    /**
+     * The share of failed calls opening the breaker.
+     */
+    private final double failureRateThreshold;
+
+    /**
+     * The share of slow calls opening the breaker.
+     */
+    private final double slowCallRateThreshold;
+
+    /**
+     * The duration in milliseconds from which a call is slow.
+     */
+    private final long slowCallDuration;
+
+    /**
+     * The number of most recent calls the rates are computed over.
+     */
+    private final int windowSize;
+
+    /**
+     * The number of calls needed before the rates are evaluated.
+     */
+    private final int minimumCalls;
+
+    /**
+     * The time in milliseconds the breaker stays open.
+     */
+    private final long openDuration;
+
+    /**
+     * The number of trial calls let through while half open.
+     */
+    private final int halfOpenCalls;
+
+    /**
+     * Notified of every state transition, may be null.
+     */
+    private final Consumer<? super CircuitBreakerEvent> listener;
+
+    /**
+     * The Constructor.
+     *
+     * @param builder the builder
+     */
+    private CircuitBreakerConfig(CircuitBreakerConfigBuilder builder) {
+        this.failureRateThreshold = builder.failureRateThreshold;
+        this.slowCallRateThreshold = builder.slowCallRateThreshold;
+        this.slowCallDuration = builder.slowCallDuration;
+        this.windowSize = builder.windowSize;
+        this.minimumCalls = Math.min(builder.minimumCalls, builder.windowSize);
+        this.openDuration = builder.openDuration;
+        this.halfOpenCalls = builder.halfOpenCalls;
+        this.listener = builder.listener;
+    }
+
+    /**
+     * Gets the share of failed calls opening the breaker.
+     *
+     * @return the failure rate threshold
+     */
+    public double getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    /**
+     * Gets the share of slow calls opening the breaker.
+     *
+     * @return the slow call rate threshold
+     */
+    public double getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    /**
+     * Gets the duration from which a call is slow.
+     *
+     * @return the slow call duration in milliseconds
+     */
+    public long getSlowCallDuration() {
+        return slowCallDuration;
+    }
+
+    /**
+     * Gets the number of most recent calls the rates are computed over.
+     *
+     * @return the window size
+     */
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * Gets the number of calls needed before the rates are evaluated.
+     *
+     * @return the minimum calls
+     */
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    /**
+     * Gets the time the breaker stays open.
+     *
+     * @return the open duration in milliseconds
+     */
+    public long getOpenDuration() {
+        return openDuration;
+    }
+
+    /**
+     * Gets the number of trial calls let through while half open.
+     *
+     * @return the half open calls
+     */
+    public int getHalfOpenCalls() {
+        return halfOpenCalls;
+    }
+
+    /**
+     * Gets the listener of state transitions.
+     *
+     * @return the listener, null if none
+     */
+    public Consumer<? super CircuitBreakerEvent> getListener() {
+        return listener;
+    }
+
+    /**
+     * The Class CircuitBreakerConfigBuilder.
+     */
+    public static class CircuitBreakerConfigBuilder {
+
+        /**
+         * The failure rate threshold.
+         */
+        private double failureRateThreshold = 0.5;
+
+        /**
+         * The slow call rate threshold.
+         */
+        private double slowCallRateThreshold = 1;
+
+        /**
+         * The slow call duration in milliseconds.
+         */
+        private long slowCallDuration = 3000;
+
+        /**
+         * The window size.
+         */
+        private int windowSize = 100;
+
+        /**
+         * The minimum calls.
+         */
+        private int minimumCalls = 20;
+
+        /**
+         * The open duration in milliseconds.
+         */
+        private long openDuration = 30000;
+
+        /**
+         * The half open calls.
+         */
+        private int halfOpenCalls = 5;
+
+        /**
+         * The listener.
+         */
+        private Consumer<? super CircuitBreakerEvent> listener;
+
+        /**
+         * Share of failed calls, from 0 to 1, that opens the breaker. A call fails when it gets a 5xx answer or no
+         * answer at all. Defaults to 0.5.
+         *
+         * @param failureRateThreshold the failure rate threshold
+         * @return the circuit breaker config builder
+         */
+        public CircuitBreakerConfigBuilder failureRateThreshold(double failureRateThreshold) {
+            this.failureRateThreshold = rate(failureRateThreshold);
+            return this;
+        }
+
+        /**
+         * Share of slow calls, from 0 to 1, that opens the breaker. Defaults to 1, so only a breaker whose every call
+         * is slow opens.
+         *
+         * @param slowCallRateThreshold the slow call rate threshold
+         * @return the circuit breaker config builder
+         */
+        public CircuitBreakerConfigBuilder slowCallRateThreshold(double slowCallRateThreshold) {
+            this.slowCallRateThreshold = rate(slowCallRateThreshold);
+            return this;
+        }
+
+        /**
+         * Duration in milliseconds from which a call counts as slow. Defaults to 3000.
+         *
+         * @param slowCallDuration the slow call duration
+         * @return the circuit breaker config builder
+         */
+        public CircuitBreakerConfigBuilder slowCallDuration(long slowCallDuration) {
+            this.slowCallDuration = slowCallDuration;
+            return this;
+        }
+
+        /**
+         * Number of most recent calls the rates are computed over. Defaults to 100.
+         *
+         * @param windowSize the window size
+         * @return the circuit breaker config builder
+         */
+        public CircuitBreakerConfigBuilder windowSize(int windowSize) {
+            if (windowSize < 1) {
+                throw new IllegalArgumentException("The window size must be at least 1");
+            }
+            this.windowSize = windowSize;
+            return this;
+        }
+
+        /**
+         * Number of calls needed in the window before the breaker can open. Defaults to 20.
+         *
+         * @param minimumCalls the minimum calls
+         * @return the circuit breaker config builder
+         */
+        public CircuitBreakerConfigBuilder minimumCalls(int minimumCalls) {
+            this.minimumCalls = Math.max(1, minimumCalls);
+            return this;
+        }
+
+        /**
+         * Time in milliseconds an open breaker fails calls before letting trial calls through. Defaults to 30000.
+         *
+         * @param openDuration the open duration
+         * @return the circuit breaker config builder
+         */
+        public CircuitBreakerConfigBuilder openDuration(long openDuration) {
+            this.openDuration = openDuration;
+            return this;
+        }
+
+        /**
+         * Number of trial calls let through while half open; the breaker closes if they stay below the thresholds and
+         * opens again otherwise. Defaults to 5.
+         *
+         * @param halfOpenCalls the half open calls
+         * @return the circuit breaker config builder
+         */
+        public CircuitBreakerConfigBuilder halfOpenCalls(int halfOpenCalls) {
+            if (halfOpenCalls < 1) {
+                throw new IllegalArgumentException("At least one half open call is needed");
+            }
+            this.halfOpenCalls = halfOpenCalls;
+            return this;
+        }
+
+        /**
+         * Listener notified of every state transition, on the thread completing the call that caused it.
+         *
+         * @param listener the listener
+         * @return the circuit breaker config builder
+         */
+        public CircuitBreakerConfigBuilder listener(Consumer<? super CircuitBreakerEvent> listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        /**
+         * Checks a rate.
+         *
+         * @param rate the rate
+         * @return the rate
+         */
+        private static double rate(double rate) {
+            if (rate < 0 || rate > 1) {
+                throw new IllegalArgumentException("The rate must be between 0 and 1");
+            }
+            return rate;
+        }
+
+        /**
+         * Builds the.
+         *
+         * @return the circuit breaker config
+         */
+        public CircuitBreakerConfig build() {
+            return new CircuitBreakerConfig(this);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.igniterealtime.restclient;
+
+/**
+ * A state transition of a circuit breaker.
+ */
+public final class CircuitBreakerEvent {
+
+    /**
+     * The endpoint family.
+     */
+    private final EndpointFamily family;
+
+    /**
+     * The previous state.
+     */
+    private final CircuitBreaker.State from;
+
+    /**
+     * The new state.
+     */
+    private final CircuitBreaker.State to;
+
+    /**
+     * The failure rate that led to the transition.
+     */
+    private final double failureRate;
+
+    /**
+     * The slow call rate that led to the transition.
+     */
+    private final double slowCallRate;
+
+    /**
+     * The time of the transition in milliseconds since the epoch.
+     */
+    private final long timestamp;
+
+    /**
+     * Instantiates a new circuit breaker event.
+     *
+     * @param family the family
+     * @param from the previous state
+     * @param to the new state
+     * @param failureRate the failure rate
+     * @param slowCallRate the slow call rate
+     * @param timestamp the timestamp
+     */
+    public CircuitBreakerEvent(EndpointFamily family, CircuitBreaker.State from, CircuitBreaker.State to,
+            double failureRate, double slowCallRate, long timestamp) {
+        this.family = family;
+        this.from = from;
+        this.to = to;
+        this.failureRate = failureRate;
+        this.slowCallRate = slowCallRate;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Gets the endpoint family.
+     *
+     * @return the family
+     */
+    public EndpointFamily getFamily() {
+        return family;
+    }
+
+    /**
+     * Gets the previous state.
+     *
+     * @return the from
+     */
+    public CircuitBreaker.State getFrom() {
+        return from;
+    }
+
+    /**
+     * Gets the new state.
+     *
+     * @return the to
+     */
+    public CircuitBreaker.State getTo() {
+        return to;
+    }
+
+    /**
+     * Gets the failure rate that led to the transition.
+     *
+     * @return the failure rate, between 0 and 1
+     */
+    public double getFailureRate() {
+        return failureRate;
+    }
+
+    /**
+     * Gets the slow call rate that led to the transition.
+     *
+     * @return the slow call rate, between 0 and 1
+     */
+    public double getSlowCallRate() {
+        return slowCallRate;
+    }
+
+    /**
+     * Gets the time of the transition.
+     *
+     * @return the timestamp in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreakerEvent [family=" + family + ", " + from + " -> " + to + ", failureRate=" + failureRate
+                + ", slowCallRate=" + slowCallRate + "]";
+    }
+}
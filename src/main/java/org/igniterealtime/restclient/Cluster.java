@@ -0,0 +1,239 @@
+package org.igniterealtime.restclient;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Response.Status;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The nodes of an Openfire cluster and the rules spreading requests over them. Each request goes to a node chosen by
+ * the load balancer among those not ejected. A node is ejected after a number of consecutive failures (no response or
+ * a 502, 503 or 504 status) and readmitted when its ejection time is over, which doubles every time it fails again
+ * right after. With active health checks every node is probed at a fixed interval: a failed probe ejects it, a passed
+ * one readmits it early. If every node is ejected, requests are spread over all of them rather than failed.
+ */
+final class Cluster {
+
+    /**
+     * The Constant LOG.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(Cluster.class);
+
+    /**
+     * The nodes.
+     */
+    private final List<ClusterNode> nodes;
+
+    /**
+     * The load balancer.
+     */
+    private final LoadBalancer loadBalancer;
+
+    /**
+     * The consecutive failures ejecting a node.
+     */
+    private final int failureThreshold;
+
+    /**
+     * The base ejection time in nanoseconds.
+     */
+    private final long ejectionTime;
+
+    /**
+     * The longest ejection time in nanoseconds.
+     */
+    private final long maxEjectionTime;
+
+    /**
+     * Runs the active health checks, null if disabled.
+     */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Instantiates a new cluster.
+     *
+     * @param uris the base uris of the nodes
+     * @param loadBalancer the load balancer
+     * @param failureThreshold the consecutive failures ejecting a node
+     * @param ejectionTime the base ejection time in milliseconds
+     * @param maxEjectionTime the longest ejection time in milliseconds
+     */
+    Cluster(List<String> uris, LoadBalancer loadBalancer, int failureThreshold, long ejectionTime,
+            long maxEjectionTime) {
+        List<ClusterNode> list = new ArrayList<>(uris.size());
+        for (String uri : uris) {
+            list.add(new ClusterNode(uri));
+        }
+        this.nodes = Collections.unmodifiableList(list);
+        this.loadBalancer = loadBalancer;
+        this.failureThreshold = failureThreshold;
+        this.ejectionTime = TimeUnit.MILLISECONDS.toNanos(ejectionTime);
+        this.maxEjectionTime = TimeUnit.MILLISECONDS.toNanos(Math.max(ejectionTime, maxEjectionTime));
+    }
+
+    /**
+     * Gets the nodes.
+     *
+     * @return the nodes
+     */
+    List<ClusterNode> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Chooses the node of a request.
+     *
+     * @return the node
+     */
+    ClusterNode select() {
+        List<ClusterNode> available = new ArrayList<>(nodes.size());
+        for (ClusterNode node : nodes) {
+            if (node.isAvailable()) {
+                available.add(node);
+            }
+        }
+        return loadBalancer.choose(available.isEmpty() ? nodes : available);
+    }
+
+    /**
+     * Sends a request to a node and records its outcome.
+     *
+     * @param node the node
+     * @param call sends the request
+     * @return the response
+     */
+    Response record(ClusterNode node, Supplier<Response> call) {
+        long start = System.nanoTime();
+        node.onSend();
+        Response response;
+        try {
+            response = call.get();
+        } catch (RuntimeException e) {
+            onResult(node, System.nanoTime() - start, isFailure(e));
+            throw e;
+        }
+        onResult(node, System.nanoTime() - start, isFailure(response.getStatus()));
+        return response;
+    }
+
+    /**
+     * Sends a request to a node asynchronously and records its outcome.
+     *
+     * @param node the node
+     * @param call starts the request
+     * @return the response stage
+     */
+    CompletionStage<Response> recordAsync(ClusterNode node, Supplier<CompletionStage<Response>> call) {
+        long start = System.nanoTime();
+        node.onSend();
+        CompletionStage<Response> stage;
+        try {
+            stage = call.get();
+        } catch (RuntimeException e) {
+            onResult(node, System.nanoTime() - start, isFailure(e));
+            return CompletableFuture.failedFuture(e);
+        }
+        return stage.whenComplete((response, e) -> onResult(node, System.nanoTime() - start,
+                e != null ? isFailure(e) : isFailure(response.getStatus())));
+    }
+
+    /**
+     * Records the outcome of a request.
+     *
+     * @param node the node
+     * @param latency the latency in nanoseconds
+     * @param failed whether the node failed
+     */
+    private void onResult(ClusterNode node, long latency, boolean failed) {
+        if (node.onResult(latency, failed, failureThreshold, ejectionTime, maxEjectionTime)) {
+            LOG.warn("Ejected {} after {} consecutive failures", node.getUri(), failureThreshold);
+        }
+    }
+
+    /**
+     * Checks if a status shows a node unable to serve requests.
+     *
+     * @param status the status
+     * @return true, if failed
+     */
+    private static boolean isFailure(int status) {
+        return status == Status.BAD_GATEWAY.getStatusCode() || status == Status.SERVICE_UNAVAILABLE.getStatusCode()
+                || status == Status.GATEWAY_TIMEOUT.getStatusCode();
+    }
+
+    /**
+     * Checks if an exception shows a node that did not answer.
+     *
+     * @param e the exception
+     * @return true, if failed
+     */
+    private static boolean isFailure(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return cause instanceof ProcessingException;
+    }
+
+    /**
+     * Starts probing the nodes at a fixed interval.
+     *
+     * @param interval the interval in milliseconds
+     * @param probe checks a node, true if it is healthy
+     */
+    void startHealthChecks(long interval, Predicate<ClusterNode> probe) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rest-client-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            for (ClusterNode node : nodes) {
+                check(node, probe);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Probes a node, ejecting or readmitting it.
+     *
+     * @param node the node
+     * @param probe the probe
+     */
+    private void check(ClusterNode node, Predicate<ClusterNode> probe) {
+        boolean healthy;
+        try {
+            healthy = probe.test(node);
+        } catch (RuntimeException e) {
+            LOG.debug("Health check of {} failed", node.getUri(), e);
+            healthy = false;
+        }
+        if (healthy) {
+            if (node.readmit()) {
+                LOG.info("Readmitted {} after a passed health check", node.getUri());
+            }
+        } else if (node.eject(ejectionTime, maxEjectionTime)) {
+            LOG.warn("Ejected {} after a failed health check", node.getUri());
+        }
+    }
+
+    /**
+     * Stops the health checks.
+     */
+    void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package org.igniterealtime.restclient;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A node of an Openfire cluster a client balances its requests over. Tracks the requests in flight and the observed
+ * latency the load balancer chooses by, and whether the node is ejected from the rotation after failing.
+ */
+public final class ClusterNode {
+
+    /**
+     * The weight of a new latency in the moving average.
+     */
+    private static final double LATENCY_WEIGHT = 0.3;
+
+    /**
+     * The base uri.
+     */
+    private final String uri;
+
+    /**
+     * The number of requests in flight.
+     */
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    /**
+     * The number of requests sent.
+     */
+    private final LongAdder requests = new LongAdder();
+
+    /**
+     * The number of requests that got no response or a 502, 503 or 504 status.
+     */
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * Guards the state below.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * The moving average of the latency in nanoseconds, 0 until the first response.
+     */
+    private double latency;
+
+    /**
+     * The number of failures since the last success.
+     */
+    private int consecutiveFailures;
+
+    /**
+     * The number of ejections since the last success, doubling the ejection time each.
+     */
+    private int ejectionLevel;
+
+    /**
+     * The time the ejection ends, from {@link System#nanoTime()}, valid while ejected.
+     */
+    private long ejectedUntil;
+
+    /**
+     * Whether the node is ejected.
+     */
+    private boolean ejected;
+
+    /**
+     * The number of ejections.
+     */
+    private final LongAdder ejections = new LongAdder();
+
+    /**
+     * Instantiates a new cluster node.
+     *
+     * @param uri the base uri
+     */
+    ClusterNode(String uri) {
+        this.uri = uri;
+    }
+
+    /**
+     * Records that a request was sent to the node.
+     */
+    void onSend() {
+        outstanding.incrementAndGet();
+        requests.increment();
+    }
+
+    /**
+     * Records the outcome of a request sent to the node.
+     *
+     * @param nanos the latency in nanoseconds
+     * @param failed whether the node failed to answer properly
+     * @param failureThreshold the consecutive failures ejecting the node
+     * @param ejectionTime the base ejection time in nanoseconds
+     * @param maxEjectionTime the longest ejection time in nanoseconds
+     * @return true, if the node was ejected
+     */
+    boolean onResult(long nanos, boolean failed, int failureThreshold, long ejectionTime, long maxEjectionTime) {
+        outstanding.decrementAndGet();
+        lock.lock();
+        try {
+            if (!failed) {
+                latency = latency == 0 ? nanos : latency + (nanos - latency) * LATENCY_WEIGHT;
+                consecutiveFailures = 0;
+                ejectionLevel = 0;
+                return false;
+            }
+            failures.increment();
+            return ++consecutiveFailures >= failureThreshold && eject(ejectionTime, maxEjectionTime);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ejects the node, for twice as long as the previous time if it did not succeed since.
+     *
+     * @param ejectionTime the base ejection time in nanoseconds
+     * @param maxEjectionTime the longest ejection time in nanoseconds
+     * @return true, if the node was not ejected already
+     */
+    boolean eject(long ejectionTime, long maxEjectionTime) {
+        lock.lock();
+        try {
+            if (isEjected()) {
+                return false;
+            }
+            long duration = ejectionTime;
+            for (int i = 0; i < ejectionLevel && duration < maxEjectionTime; i++) {
+                duration *= 2;
+            }
+            ejectionLevel++;
+            ejected = true;
+            ejectedUntil = System.nanoTime() + Math.min(duration, maxEjectionTime);
+            consecutiveFailures = 0;
+            ejections.increment();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Readmits the node before its ejection ends, after it passed a health check.
+     *
+     * @return true, if the node was ejected
+     */
+    boolean readmit() {
+        lock.lock();
+        try {
+            if (!isEjected()) {
+                return false;
+            }
+            ejected = false;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks if the node is ejected, readmitting it once its ejection time is over. Called with the lock held.
+     *
+     * @return true, if ejected
+     */
+    private boolean isEjected() {
+        if (ejected && System.nanoTime() - ejectedUntil >= 0) {
+            ejected = false;
+        }
+        return ejected;
+    }
+
+    /**
+     * Gets the base uri.
+     *
+     * @return the uri
+     */
+    public String getUri() {
+        return uri;
+    }
+
+    /**
+     * Checks if the node takes requests.
+     *
+     * @return true, if the node is not ejected
+     */
+    public boolean isAvailable() {
+        lock.lock();
+        try {
+            return !isEjected();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of requests in flight.
+     *
+     * @return the outstanding count
+     */
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    /**
+     * Gets the moving average of the latency.
+     *
+     * @return the latency in nanoseconds, 0 until the first response
+     */
+    public long getLatency() {
+        lock.lock();
+        try {
+            return (long) latency;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of requests sent.
+     *
+     * @return the request count
+     */
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * Gets the number of requests that got no response or a 502, 503 or 504 status.
+     *
+     * @return the failure count
+     */
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    /**
+     * Gets the number of times the node was ejected.
+     *
+     * @return the ejection count
+     */
+    public long getEjectionCount() {
+        return ejections.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ClusterNode [uri=" + uri + ", available=" + isAvailable() + ", outstanding=" + getOutstanding()
+                + ", latency=" + TimeUnit.NANOSECONDS.toMillis(getLatency()) + "ms, requests=" + getRequestCount()
+                + ", failures=" + getFailureCount() + ", ejections=" + getEjectionCount() + "]";
+    }
+}
@@ -0,0 +1,84 @@
+package org.igniterealtime.restclient;
+
+/**
+ * The Class ConnectionPoolStats.
+ */
+public final class ConnectionPoolStats {
+
+    /**
+     * The number of connections currently in use.
+     */
+    private final int leased;
+
+    /**
+     * The number of requests waiting for a connection.
+     */
+    private final int pending;
+
+    /**
+     * The number of idle connections kept alive.
+     */
+    private final int available;
+
+    /**
+     * The maximum number of connections.
+     */
+    private final int max;
+
+    /**
+     * Instantiates new connection pool stats.
+     *
+     * @param leased the leased connections
+     * @param pending the pending requests
+     * @param available the available connections
+     * @param max the maximum number of connections
+     */
+    public ConnectionPoolStats(int leased, int pending, int available, int max) {
+        this.leased = leased;
+        this.pending = pending;
+        this.available = available;
+        this.max = max;
+    }
+
+    /**
+     * Gets the number of connections currently in use.
+     *
+     * @return the leased connections
+     */
+    public int getLeased() {
+        return leased;
+    }
+
+    /**
+     * Gets the number of requests waiting for a connection.
+     *
+     * @return the pending requests
+     */
+    public int getPending() {
+        return pending;
+    }
+
+    /**
+     * Gets the number of idle connections kept alive.
+     *
+     * @return the available connections
+     */
+    public int getAvailable() {
+        return available;
+    }
+
+    /**
+     * Gets the maximum number of connections.
+     *
+     * @return the maximum number of connections
+     */
+    public int getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPoolStats [leased=" + leased + ", pending=" + pending + ", available=" + available
+                + ", max=" + max + "]";
+    }
+}
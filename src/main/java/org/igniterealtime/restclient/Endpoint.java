@@ -0,0 +1,458 @@
+package org.igniterealtime.restclient;
+
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.core.Response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.igniterealtime.restclient.entity.GroupEntities;
+import org.igniterealtime.restclient.entity.GroupEntity;
+import org.igniterealtime.restclient.entity.MUCRoomEntities;
+import org.igniterealtime.restclient.entity.MUCRoomEntity;
+import org.igniterealtime.restclient.entity.ParticipantEntities;
+import org.igniterealtime.restclient.entity.RosterEntities;
+import org.igniterealtime.restclient.entity.SessionEntities;
+import org.igniterealtime.restclient.entity.SystemProperties;
+import org.igniterealtime.restclient.entity.SystemProperty;
+import org.igniterealtime.restclient.entity.UserEntities;
+import org.igniterealtime.restclient.entity.UserEntity;
+import org.igniterealtime.restclient.entity.UserGroupsEntity;
+
+/**
+ * The endpoints of the REST API plugin. Each endpoint knows its HTTP method, path template, response type and
+ * whether repeating the request has the same effect as sending it once. Path templates are split into literal
+ * parts once, so resolving one per request is a single pass over its parameters.
+ */
+public enum Endpoint {
+
+    /**
+     * All users, optionally filtered by query params.
+     */
+    USERS(HttpMethod.GET, "users", UserEntities.class, true),
+
+    /**
+     * A single user.
+     */
+    USER(HttpMethod.GET, "users/{username}", UserEntity.class, true),
+
+    /**
+     * Creates a user.
+     */
+    CREATE_USER(HttpMethod.POST, "users", Response.class, false),
+
+    /**
+     * Updates a user.
+     */
+    UPDATE_USER(HttpMethod.PUT, "users/{username}", Response.class, true),
+
+    /**
+     * Deletes a user.
+     */
+    DELETE_USER(HttpMethod.DELETE, "users/{username}", Response.class, true),
+
+    /**
+     * The groups of a user.
+     */
+    USER_GROUPS(HttpMethod.GET, "users/{username}/groups", UserGroupsEntity.class, true),
+
+    /**
+     * Adds a user to several groups.
+     */
+    ADD_USER_TO_GROUPS(HttpMethod.POST, "users/{username}/groups/", Response.class, true),
+
+    /**
+     * Adds a user to a group.
+     */
+    ADD_USER_TO_GROUP(HttpMethod.POST, "users/{username}/groups/{groupName}", Response.class, true),
+
+    /**
+     * Removes a user from a group.
+     */
+    DELETE_USER_FROM_GROUP(HttpMethod.DELETE, "users/{username}/groups/{groupName}", Response.class, true),
+
+    /**
+     * The roster of a user.
+     */
+    ROSTER(HttpMethod.GET, "users/{username}/roster", RosterEntities.class, true),
+
+    /**
+     * Adds a roster entry.
+     */
+    ADD_ROSTER_ENTRY(HttpMethod.POST, "users/{username}/roster", Response.class, false),
+
+    /**
+     * Updates a roster entry.
+     */
+    UPDATE_ROSTER_ENTRY(HttpMethod.PUT, "users/{username}/roster/{jid}", Response.class, true),
+
+    /**
+     * Deletes a roster entry.
+     */
+    DELETE_ROSTER_ENTRY(HttpMethod.DELETE, "users/{username}/roster/{jid}", Response.class, true),
+
+    /**
+     * Locks a user out.
+     */
+    LOCKOUT_USER(HttpMethod.POST, "lockouts/{username}", Response.class, true),
+
+    /**
+     * Unlocks a user.
+     */
+    UNLOCK_USER(HttpMethod.DELETE, "lockouts/{username}", Response.class, true),
+
+    /**
+     * All chat rooms, optionally filtered by query params.
+     */
+    CHAT_ROOMS(HttpMethod.GET, "chatrooms", MUCRoomEntities.class, true),
+
+    /**
+     * A single chat room.
+     */
+    CHAT_ROOM(HttpMethod.GET, "chatrooms/{roomName}", MUCRoomEntity.class, true),
+
+    /**
+     * Creates a chat room.
+     */
+    CREATE_CHAT_ROOM(HttpMethod.POST, "chatrooms", Response.class, false),
+
+    /**
+     * Updates a chat room.
+     */
+    UPDATE_CHAT_ROOM(HttpMethod.PUT, "chatrooms/{roomName}", Response.class, true),
+
+    /**
+     * Deletes a chat room.
+     */
+    DELETE_CHAT_ROOM(HttpMethod.DELETE, "chatrooms/{roomName}", Response.class, true),
+
+    /**
+     * The participants of a chat room.
+     */
+    CHAT_ROOM_PARTICIPANTS(HttpMethod.GET, "chatrooms/{roomName}/participants", ParticipantEntities.class, true),
+
+    /**
+     * Grants a user the owner affiliation.
+     */
+    ADD_OWNER(HttpMethod.POST, "chatrooms/{roomName}/owners/{jid}", Response.class, true),
+
+    /**
+     * Revokes the owner affiliation of a user.
+     */
+    DELETE_OWNER(HttpMethod.DELETE, "chatrooms/{roomName}/owners/{jid}", Response.class, true),
+
+    /**
+     * Grants a user the admin affiliation.
+     */
+    ADD_ADMIN(HttpMethod.POST, "chatrooms/{roomName}/admins/{jid}", Response.class, true),
+
+    /**
+     * Revokes the admin affiliation of a user.
+     */
+    DELETE_ADMIN(HttpMethod.DELETE, "chatrooms/{roomName}/admins/{jid}", Response.class, true),
+
+    /**
+     * Grants a user the member affiliation.
+     */
+    ADD_MEMBER(HttpMethod.POST, "chatrooms/{roomName}/members/{jid}", Response.class, true),
+
+    /**
+     * Revokes the member affiliation of a user.
+     */
+    DELETE_MEMBER(HttpMethod.DELETE, "chatrooms/{roomName}/members/{jid}", Response.class, true),
+
+    /**
+     * Grants a user the outcast affiliation.
+     */
+    ADD_OUTCAST(HttpMethod.POST, "chatrooms/{roomName}/outcasts/{jid}", Response.class, true),
+
+    /**
+     * Revokes the outcast affiliation of a user.
+     */
+    DELETE_OUTCAST(HttpMethod.DELETE, "chatrooms/{roomName}/outcasts/{jid}", Response.class, true),
+
+    /**
+     * Grants a group the owner affiliation.
+     */
+    ADD_OWNER_GROUP(HttpMethod.POST, "chatrooms/{roomName}/owners/group/{groupName}", Response.class, true),
+
+    /**
+     * Revokes the owner affiliation of a group.
+     */
+    DELETE_OWNER_GROUP(HttpMethod.DELETE, "chatrooms/{roomName}/owners/group/{groupName}", Response.class, true),
+
+    /**
+     * Grants a group the admin affiliation.
+     */
+    ADD_ADMIN_GROUP(HttpMethod.POST, "chatrooms/{roomName}/admins/group/{groupName}", Response.class, true),
+
+    /**
+     * Revokes the admin affiliation of a group.
+     */
+    DELETE_ADMIN_GROUP(HttpMethod.DELETE, "chatrooms/{roomName}/admins/group/{groupName}", Response.class, true),
+
+    /**
+     * Grants a group the member affiliation.
+     */
+    ADD_MEMBER_GROUP(HttpMethod.POST, "chatrooms/{roomName}/members/group/{groupName}", Response.class, true),
+
+    /**
+     * Revokes the member affiliation of a group.
+     */
+    DELETE_MEMBER_GROUP(HttpMethod.DELETE, "chatrooms/{roomName}/members/group/{groupName}", Response.class, true),
+
+    /**
+     * Grants a group the outcast affiliation.
+     */
+    ADD_OUTCAST_GROUP(HttpMethod.POST, "chatrooms/{roomName}/outcasts/group/{groupName}", Response.class, true),
+
+    /**
+     * Revokes the outcast affiliation of a group.
+     */
+    DELETE_OUTCAST_GROUP(HttpMethod.DELETE, "chatrooms/{roomName}/outcasts/group/{groupName}", Response.class, true),
+
+    /**
+     * All sessions.
+     */
+    SESSIONS(HttpMethod.GET, "sessions", SessionEntities.class, true),
+
+    /**
+     * The sessions of a user.
+     */
+    USER_SESSIONS(HttpMethod.GET, "sessions/{username}", SessionEntities.class, true),
+
+    /**
+     * Closes the sessions of a user.
+     */
+    DELETE_USER_SESSIONS(HttpMethod.DELETE, "sessions/{username}", Response.class, true),
+
+    /**
+     * All system properties.
+     */
+    SYSTEM_PROPERTIES(HttpMethod.GET, "system/properties", SystemProperties.class, true),
+
+    /**
+     * A single system property.
+     */
+    SYSTEM_PROPERTY(HttpMethod.GET, "system/properties/{propertyName}", SystemProperty.class, true),
+
+    /**
+     * Creates a system property.
+     */
+    CREATE_SYSTEM_PROPERTY(HttpMethod.POST, "system/properties", Response.class, false),
+
+    /**
+     * Updates a system property.
+     */
+    UPDATE_SYSTEM_PROPERTY(HttpMethod.PUT, "system/properties/{propertyName}", Response.class, true),
+
+    /**
+     * Deletes a system property.
+     */
+    DELETE_SYSTEM_PROPERTY(HttpMethod.DELETE, "system/properties/{propertyName}", Response.class, true),
+
+    /**
+     * All groups.
+     */
+    GROUPS(HttpMethod.GET, "groups", GroupEntities.class, true),
+
+    /**
+     * A single group.
+     */
+    GROUP(HttpMethod.GET, "groups/{groupName}", GroupEntity.class, true),
+
+    /**
+     * Creates a group.
+     */
+    CREATE_GROUP(HttpMethod.POST, "groups", Response.class, false),
+
+    /**
+     * Updates a group.
+     */
+    UPDATE_GROUP(HttpMethod.PUT, "groups/{groupName}", Response.class, true),
+
+    /**
+     * Deletes a group.
+     */
+    DELETE_GROUP(HttpMethod.DELETE, "groups/{groupName}", Response.class, true);
+
+    /**
+     * The HTTP method.
+     */
+    private final String method;
+
+    /**
+     * The path template relative to the REST API root, with parameters in braces.
+     */
+    private final String pathTemplate;
+
+    /**
+     * The response type.
+     */
+    private final Class<?> responseType;
+
+    /**
+     * Whether sending the request twice has the same effect as sending it once.
+     */
+    private final boolean idempotent;
+
+    /**
+     * The family.
+     */
+    private final EndpointFamily family;
+
+    /**
+     * The literal parts around the parameters, one more than there are parameters.
+     */
+    private final String[] literals;
+
+    /**
+     * The total length of the literal parts.
+     */
+    private final int literalLength;
+
+    /**
+     * Instantiates a new endpoint.
+     *
+     * @param method the HTTP method
+     * @param pathTemplate the path template
+     * @param responseType the response type
+     * @param idempotent whether the request is idempotent
+     */
+    Endpoint(String method, String pathTemplate, Class<?> responseType, boolean idempotent) {
+        this.method = method;
+        this.pathTemplate = pathTemplate;
+        this.responseType = responseType;
+        this.idempotent = idempotent;
+        this.family = EndpointFamily.of(pathTemplate);
+
+        List<String> parts = new ArrayList<>();
+        int length = 0;
+        int start = 0;
+        int open = pathTemplate.indexOf('{');
+        while (open >= 0) {
+            parts.add(pathTemplate.substring(start, open));
+            length += open - start;
+            start = pathTemplate.indexOf('}', open) + 1;
+            open = pathTemplate.indexOf('{', start);
+        }
+        parts.add(pathTemplate.substring(start));
+        length += pathTemplate.length() - start;
+        this.literals = parts.toArray(new String[0]);
+        this.literalLength = length;
+    }
+
+    /**
+     * Resolves the path template.
+     *
+     * @param pathParams the path params, in the order they appear in the template
+     * @return the path relative to the REST API root
+     */
+    public String resolve(String... pathParams) {
+        int parameterCount = literals.length - 1;
+        if (pathParams.length != parameterCount) {
+            throw new IllegalArgumentException(name() + " expects " + parameterCount + " path params, got "
+                    + pathParams.length);
+        }
+        if (parameterCount == 0) {
+            return pathTemplate;
+        }
+        int length = literalLength;
+        for (String pathParam : pathParams) {
+            length += pathParam.length();
+        }
+        StringBuilder path = new StringBuilder(length);
+        for (int i = 0; i < parameterCount; i++) {
+            path.append(literals[i]).append(pathParams[i]);
+        }
+        return path.append(literals[parameterCount]).toString();
+    }
+
+    /**
+     * Finds the endpoint a request is sent to, so requests built from a path still get the identity of their endpoint.
+     * Path parameters match a single non-empty segment.
+     *
+     * @param method the HTTP method
+     * @param restPath the path relative to the REST API root
+     * @return the endpoint, null if no endpoint matches
+     */
+    public static Endpoint match(String method, String restPath) {
+        String path = restPath.startsWith("/") ? restPath.substring(1) : restPath;
+        for (Endpoint endpoint : values()) {
+            if (endpoint.method.equals(method) && endpoint.matches(path)) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks if a path matches the path template.
+     *
+     * @param path the path relative to the REST API root, without leading slash
+     * @return true, if the path matches
+     */
+    private boolean matches(String path) {
+        if (!path.startsWith(literals[0])) {
+            return false;
+        }
+        int position = literals[0].length();
+        for (int i = 1; i < literals.length; i++) {
+            int end = path.indexOf('/', position);
+            if (end < 0) {
+                end = path.length();
+            }
+            if (end == position || !path.startsWith(literals[i], end)) {
+                return false;
+            }
+            position = end + literals[i].length();
+        }
+        return position == path.length();
+    }
+
+    /**
+     * Gets the HTTP method.
+     *
+     * @return the HTTP method
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Gets the path template.
+     *
+     * @return the path template
+     */
+    public String getPathTemplate() {
+        return pathTemplate;
+    }
+
+    /**
+     * Gets the response type.
+     *
+     * @return the response type
+     */
+    public Class<?> getResponseType() {
+        return responseType;
+    }
+
+    /**
+     * Checks if sending the request twice has the same effect as sending it once.
+     *
+     * @return true, if idempotent
+     */
+    public boolean isIdempotent() {
+        return idempotent;
+    }
+
+    /**
+     * Gets the family.
+     *
+     * @return the family
+     */
+    public EndpointFamily getFamily() {
+        return family;
+    }
+
+}
@@ -0,0 +1,65 @@
+package org.igniterealtime.restclient;
+
+/**
+ * The groups of endpoints sharing a resource on the server, used to apply limits per area of the REST API. The family
+ * of a request is told by the first segment of its path, so calls by path and calls by {@link Endpoint} agree.
+ */
+public enum EndpointFamily {
+
+    /**
+     * Users, their groups, rosters and lockouts.
+     */
+    USERS,
+
+    /**
+     * Chat rooms and their affiliations.
+     */
+    CHAT_ROOMS,
+
+    /**
+     * Sessions.
+     */
+    SESSIONS,
+
+    /**
+     * Groups.
+     */
+    GROUPS,
+
+    /**
+     * System properties.
+     */
+    SYSTEM,
+
+    /**
+     * Any other path.
+     */
+    OTHER;
+
+    /**
+     * Gets the family of a path.
+     *
+     * @param restPath the path relative to the REST API root
+     * @return the endpoint family
+     */
+    public static EndpointFamily of(String restPath) {
+        int start = restPath.startsWith("/") ? 1 : 0;
+        int end = restPath.indexOf('/', start);
+        String segment = restPath.substring(start, end < 0 ? restPath.length() : end);
+        switch (segment) {
+            case "users":
+            case "lockouts":
+                return USERS;
+            case "chatrooms":
+                return CHAT_ROOMS;
+            case "sessions":
+                return SESSIONS;
+            case "groups":
+                return GROUPS;
+            case "system":
+                return SYSTEM;
+            default:
+                return OTHER;
+        }
+    }
+}
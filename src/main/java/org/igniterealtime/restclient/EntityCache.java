@@ -0,0 +1,518 @@
+package org.igniterealtime.restclient;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import org.igniterealtime.restclient.entity.GroupEntity;
+import org.igniterealtime.restclient.entity.MUCRoomEntity;
+import org.igniterealtime.restclient.entity.SystemProperty;
+import org.igniterealtime.restclient.entity.UserEntity;
+
+/**
+ * A client side cache of single entities read through a {@link RestApiClient}, such as users, groups, chat rooms,
+ * system properties and the groups of a user. Entries expire after the time to live of their endpoint and the least
+ * recently used entry is dropped when the cache is full. Updates and deletions sent through the same client invalidate
+ * the entries they change; changes made by other clients become visible once the entries expire. Keys are compared
+ * ignoring case, like Openfire does, except for system property keys.
+ * <p>
+ * Cached entities are shared between callers and must be treated as read-only.
+ */
+public final class EntityCache {
+
+    /**
+     * Marks a key known not to exist.
+     */
+    private static final Object NOT_FOUND = new Object();
+
+    /**
+     * The maximum number of entries.
+     */
+    private final int maxSize;
+
+    /**
+     * The default time to live in nanoseconds.
+     */
+    private final long timeToLive;
+
+    /**
+     * The time to live in nanoseconds by endpoint, overriding the default.
+     */
+    private final Map<Endpoint, Long> timeToLiveByEndpoint;
+
+    /**
+     * The time to live in nanoseconds of keys known not to exist.
+     */
+    private final long notFoundTimeToLive;
+
+    /**
+     * The entries in access order, keyed by endpoint and key.
+     */
+    private final LinkedHashMap<List<Object>, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Guards the entries and the counters. A lock rather than a monitor, so virtual threads waiting for it do not pin
+     * their carrier thread.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Incremented by every invalidation, so a value loaded before one is not stored after it.
+     */
+    private volatile long generation;
+
+    /**
+     * The hits.
+     */
+    private long hits;
+
+    /**
+     * The misses.
+     */
+    private long misses;
+
+    /**
+     * The evictions.
+     */
+    private long evictions;
+
+    /**
+     * The Constructor.
+     *
+     * @param builder the builder
+     */
+    private EntityCache(EntityCacheBuilder builder) {
+        this.maxSize = builder.maxSize;
+        this.timeToLive = TimeUnit.MILLISECONDS.toNanos(builder.timeToLive);
+        this.notFoundTimeToLive = TimeUnit.MILLISECONDS.toNanos(builder.notFoundTimeToLive);
+        this.timeToLiveByEndpoint = new EnumMap<>(Endpoint.class);
+        builder.timeToLiveByEndpoint.forEach((endpoint, millis) ->
+                this.timeToLiveByEndpoint.put(endpoint, TimeUnit.MILLISECONDS.toNanos(millis)));
+    }
+
+    /**
+     * Gets an entity from the cache, or loads and caches it.
+     *
+     * @param <T> the entity type
+     * @param endpoint the endpoint the entity is read from
+     * @param key the key
+     * @param loader the loader
+     * @return the entity
+     */
+    @SuppressWarnings("unchecked")
+    <T> T get(Endpoint endpoint, String key, Supplier<T> loader) {
+        List<Object> cacheKey = cacheKey(endpoint, key);
+        Object cached = lookup(cacheKey, false);
+        if (cached != null) {
+            return (T) cached;
+        }
+        long loadGeneration = generation;
+        T value = loader.get();
+        store(cacheKey, value, timeToLive(endpoint), loadGeneration);
+        return value;
+    }
+
+    /**
+     * Gets an entity from the cache, or loads and caches it asynchronously.
+     *
+     * @param <T> the entity type
+     * @param endpoint the endpoint the entity is read from
+     * @param key the key
+     * @param loader the loader
+     * @return the future entity
+     */
+    @SuppressWarnings("unchecked")
+    <T> CompletableFuture<T> getAsync(Endpoint endpoint, String key, Supplier<CompletableFuture<T>> loader) {
+        List<Object> cacheKey = cacheKey(endpoint, key);
+        Object cached = lookup(cacheKey, false);
+        if (cached != null) {
+            return CompletableFuture.completedFuture((T) cached);
+        }
+        long loadGeneration = generation;
+        return loader.get().thenApply(value -> {
+            store(cacheKey, value, timeToLive(endpoint), loadGeneration);
+            return value;
+        });
+    }
+
+    /**
+     * Checks if a key exists, answering from the cache when the entity or its absence is cached.
+     *
+     * @param endpoint the endpoint the entity is read from
+     * @param key the key
+     * @param probe asks the server
+     * @return true, if the key exists
+     */
+    boolean exists(Endpoint endpoint, String key, BooleanSupplier probe) {
+        List<Object> cacheKey = cacheKey(endpoint, key);
+        Object cached = lookup(cacheKey, true);
+        if (cached != null) {
+            return cached != NOT_FOUND;
+        }
+        long loadGeneration = generation;
+        boolean exists = probe.getAsBoolean();
+        if (!exists) {
+            store(cacheKey, NOT_FOUND, notFoundTimeToLive, loadGeneration);
+        }
+        return exists;
+    }
+
+    /**
+     * Checks asynchronously if a key exists, answering from the cache when the entity or its absence is cached.
+     *
+     * @param endpoint the endpoint the entity is read from
+     * @param key the key
+     * @param probe asks the server
+     * @return the future result, true if the key exists
+     */
+    CompletableFuture<Boolean> existsAsync(Endpoint endpoint, String key,
+            Supplier<CompletableFuture<Boolean>> probe) {
+        List<Object> cacheKey = cacheKey(endpoint, key);
+        Object cached = lookup(cacheKey, true);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached != NOT_FOUND);
+        }
+        long loadGeneration = generation;
+        return probe.get().thenApply(exists -> {
+            if (!exists) {
+                store(cacheKey, NOT_FOUND, notFoundTimeToLive, loadGeneration);
+            }
+            return exists;
+        });
+    }
+
+    /**
+     * Gets the cache key of an entity. Usernames, group names and room names are case-insensitive in Openfire, so they
+     * are lower-cased; system property keys are kept as they are.
+     *
+     * @param endpoint the endpoint the entity is read from
+     * @param key the key
+     * @return the cache key
+     */
+    private static List<Object> cacheKey(Endpoint endpoint, String key) {
+        if (key != null && endpoint != Endpoint.SYSTEM_PROPERTY) {
+            key = key.toLowerCase(Locale.ROOT);
+        }
+        return Arrays.asList(endpoint, key);
+    }
+
+    /**
+     * Gets the time to live of the entities read from an endpoint.
+     *
+     * @param endpoint the endpoint
+     * @return the time to live in nanoseconds
+     */
+    private long timeToLive(Endpoint endpoint) {
+        return timeToLiveByEndpoint.getOrDefault(endpoint, timeToLive);
+    }
+
+    /**
+     * Looks up a live entry and counts the hit or miss.
+     *
+     * @param cacheKey the cache key
+     * @param notFound whether a key known not to exist counts as a hit
+     * @return the value, or null if none is cached
+     */
+    private Object lookup(List<Object> cacheKey, boolean notFound) {
+        lock.lock();
+        try {
+            Entry entry = entries.get(cacheKey);
+            if (entry != null && entry.expiresAt - System.nanoTime() <= 0) {
+                entries.remove(cacheKey);
+                evictions++;
+                entry = null;
+            }
+            if (entry == null || (!notFound && entry.value == NOT_FOUND)) {
+                misses++;
+                return null;
+            }
+            hits++;
+            return entry.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stores a loaded value unless it was invalidated while loading.
+     *
+     * @param cacheKey the cache key
+     * @param value the value
+     * @param ttl the time to live in nanoseconds
+     * @param loadGeneration the generation when the load started
+     */
+    private void store(List<Object> cacheKey, Object value, long ttl, long loadGeneration) {
+        if (value == null || ttl <= 0 || maxSize <= 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (generation != loadGeneration) {
+                return;
+            }
+            entries.put(cacheKey, new Entry(value, System.nanoTime() + ttl));
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (entries.size() > maxSize) {
+                eldest.next();
+                eldest.remove();
+                evictions++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Invalidates the entries changed by a call to an endpoint. Creating an entity drops the record of its absence.
+     *
+     * @param mutation the endpoint called
+     * @param payload the payload of the call
+     * @param pathParams the path params of the call
+     */
+    void invalidate(Endpoint mutation, Object payload, String... pathParams) {
+        switch (mutation) {
+            case CREATE_USER:
+                invalidate(Endpoint.USER, ((UserEntity) payload).getUsername());
+                break;
+            case CREATE_GROUP:
+                invalidate(Endpoint.GROUP, ((GroupEntity) payload).getName());
+                invalidateAll(Endpoint.USER_GROUPS);
+                break;
+            case CREATE_CHAT_ROOM:
+                invalidate(Endpoint.CHAT_ROOM, ((MUCRoomEntity) payload).getRoomName());
+                break;
+            case CREATE_SYSTEM_PROPERTY:
+                invalidate(Endpoint.SYSTEM_PROPERTY, ((SystemProperty) payload).getKey());
+                break;
+            case UPDATE_USER:
+            case LOCKOUT_USER:
+            case UNLOCK_USER:
+                invalidate(Endpoint.USER, pathParams[0]);
+                break;
+            case DELETE_USER:
+                invalidate(Endpoint.USER, pathParams[0]);
+                invalidate(Endpoint.USER_GROUPS, pathParams[0]);
+                invalidateAll(Endpoint.GROUP);
+                break;
+            case ADD_USER_TO_GROUPS:
+                invalidate(Endpoint.USER_GROUPS, pathParams[0]);
+                invalidateAll(Endpoint.GROUP);
+                break;
+            case ADD_USER_TO_GROUP:
+            case DELETE_USER_FROM_GROUP:
+                invalidate(Endpoint.USER_GROUPS, pathParams[0]);
+                invalidate(Endpoint.GROUP, pathParams[1]);
+                break;
+            case UPDATE_CHAT_ROOM:
+            case DELETE_CHAT_ROOM:
+            case ADD_OWNER:
+            case DELETE_OWNER:
+            case ADD_ADMIN:
+            case DELETE_ADMIN:
+            case ADD_MEMBER:
+            case DELETE_MEMBER:
+            case ADD_OUTCAST:
+            case DELETE_OUTCAST:
+            case ADD_OWNER_GROUP:
+            case DELETE_OWNER_GROUP:
+            case ADD_ADMIN_GROUP:
+            case DELETE_ADMIN_GROUP:
+            case ADD_MEMBER_GROUP:
+            case DELETE_MEMBER_GROUP:
+            case ADD_OUTCAST_GROUP:
+            case DELETE_OUTCAST_GROUP:
+                invalidate(Endpoint.CHAT_ROOM, pathParams[0]);
+                break;
+            case UPDATE_GROUP:
+            case DELETE_GROUP:
+                invalidate(Endpoint.GROUP, pathParams[0]);
+                invalidateAll(Endpoint.USER_GROUPS);
+                break;
+            case UPDATE_SYSTEM_PROPERTY:
+            case DELETE_SYSTEM_PROPERTY:
+                invalidate(Endpoint.SYSTEM_PROPERTY, pathParams[0]);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Invalidates the entry of a key.
+     *
+     * @param endpoint the endpoint the entity is read from
+     * @param key the key
+     */
+    public void invalidate(Endpoint endpoint, String key) {
+        lock.lock();
+        try {
+            generation++;
+            entries.remove(cacheKey(endpoint, key));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Invalidates all entries read from an endpoint.
+     *
+     * @param endpoint the endpoint
+     */
+    public void invalidateAll(Endpoint endpoint) {
+        lock.lock();
+        try {
+            generation++;
+            entries.keySet().removeIf(cacheKey -> cacheKey.get(0) == endpoint);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Invalidates all entries.
+     */
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            generation++;
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the statistics of the cache.
+     *
+     * @return the entity cache stats
+     */
+    public EntityCacheStats getStats() {
+        lock.lock();
+        try {
+            return new EntityCacheStats(hits, misses, evictions, entries.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A cached value and its expiry.
+     */
+    private static final class Entry {
+
+        /**
+         * The value.
+         */
+        private final Object value;
+
+        /**
+         * The expiry in nanoseconds.
+         */
+        private final long expiresAt;
+
+        /**
+         * Instantiates a new entry.
+         *
+         * @param value the value
+         * @param expiresAt the expiry
+         */
+        Entry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * The Class EntityCacheBuilder.
+     */
+    public static class EntityCacheBuilder {
+
+        /**
+         * The maximum number of entries.
+         */
+        private int maxSize = 10000;
+
+        /**
+         * The default time to live in milliseconds.
+         */
+        private long timeToLive = 30000;
+
+        /**
+         * The time to live in milliseconds by endpoint.
+         */
+        private final Map<Endpoint, Long> timeToLiveByEndpoint = new EnumMap<>(Endpoint.class);
+
+        /**
+         * The time to live in milliseconds of keys known not to exist.
+         */
+        private long notFoundTimeToLive;
+
+        /**
+         * Maximum number of cached entities. The least recently used entity is dropped to make room for a new one.
+         * Defaults to 10000.
+         *
+         * @param maxSize the max size
+         * @return the entity cache builder
+         */
+        public EntityCacheBuilder maxSize(int maxSize) {
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        /**
+         * Time in milliseconds an entity stays cached, unless set for its endpoint. Defaults to 30000.
+         *
+         * @param timeToLive the time to live
+         * @return the entity cache builder
+         */
+        public EntityCacheBuilder timeToLive(long timeToLive) {
+            this.timeToLive = timeToLive;
+            return this;
+        }
+
+        /**
+         * Time in milliseconds an entity read from an endpoint stays cached, 0 to not cache it. The cached endpoints
+         * are {@link Endpoint#USER}, {@link Endpoint#USER_GROUPS}, {@link Endpoint#GROUP},
+         * {@link Endpoint#CHAT_ROOM} and {@link Endpoint#SYSTEM_PROPERTY}.
+         *
+         * @param endpoint the endpoint
+         * @param timeToLive the time to live
+         * @return the entity cache builder
+         */
+        public EntityCacheBuilder timeToLive(Endpoint endpoint, long timeToLive) {
+            this.timeToLiveByEndpoint.put(endpoint, timeToLive);
+            return this;
+        }
+
+        /**
+         * Time in milliseconds the existence checks remember a key that does not exist, 0 (the default) to always
+         * ask the server. Creating the entity through the same client drops the record at once, creations by other
+         * clients are seen once it expires, so keep this short.
+         *
+         * @param notFoundTimeToLive the time to live of keys not found
+         * @return the entity cache builder
+         */
+        public EntityCacheBuilder notFoundTimeToLive(long notFoundTimeToLive) {
+            this.notFoundTimeToLive = notFoundTimeToLive;
+            return this;
+        }
+
+        /**
+         * Builds the.
+         *
+         * @return the entity cache
+         */
+        public EntityCache build() {
+            return new EntityCache(this);
+        }
+    }
+}
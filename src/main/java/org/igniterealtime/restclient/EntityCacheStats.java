@@ -0,0 +1,94 @@
+package org.igniterealtime.restclient;
+
+/**
+ * The Class EntityCacheStats.
+ */
+public final class EntityCacheStats {
+
+    /**
+     * The number of lookups answered from the cache.
+     */
+    private final long hits;
+
+    /**
+     * The number of lookups sent to the server.
+     */
+    private final long misses;
+
+    /**
+     * The number of entries dropped because they expired or the cache was full.
+     */
+    private final long evictions;
+
+    /**
+     * The number of entries currently cached.
+     */
+    private final int size;
+
+    /**
+     * Instantiates new entity cache stats.
+     *
+     * @param hits the hits
+     * @param misses the misses
+     * @param evictions the evictions
+     * @param size the size
+     */
+    public EntityCacheStats(long hits, long misses, long evictions, int size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+    }
+
+    /**
+     * Gets the number of lookups answered from the cache.
+     *
+     * @return the hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of lookups sent to the server.
+     *
+     * @return the misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of entries dropped because they expired or the cache was full.
+     *
+     * @return the evictions
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Gets the number of entries currently cached.
+     *
+     * @return the size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the share of lookups answered from the cache.
+     *
+     * @return the hit rate, 0 if there was no lookup yet
+     */
+    public double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return "EntityCacheStats [hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + ", size="
+                + size + "]";
+    }
+}
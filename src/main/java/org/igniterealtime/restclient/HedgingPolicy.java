@@ -0,0 +1,371 @@
+package org.igniterealtime.restclient;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Decides when a GET request still waiting for its response is sent a second time. The hedge is sent once the request
+ * has waited longer than a percentile of the latencies recently observed for its {@link Endpoint}, so only the slowest
+ * requests are duplicated and a cheap lookup is not measured against a large list download; the first successful
+ * response is used and the other one discarded. Latencies are collected in windows of a bounded size and age, and the
+ * delay is taken from the last complete window, so it follows changes in load. Until a window was completed a fixed
+ * initial delay is used.
+ * <p>
+ * Hedges are paid from a budget like retries: every request adds a fraction of a hedge to it and every hedge takes a
+ * whole one, so hedging adds at most that fraction of extra load even when the server is slow for every request. A
+ * policy keeps its budget and latencies, so each client needs its own instance.
+ */
+public final class HedgingPolicy {
+
+    /**
+     * The number of hedges that can be saved up.
+     */
+    private static final double BUDGET_CAP = 10;
+
+    /**
+     * The number of latencies needed before a window is used.
+     */
+    private static final int MIN_SAMPLES = 100;
+
+    /**
+     * The number of latencies completing a window.
+     */
+    private static final int WINDOW_SIZE = 1000;
+
+    /**
+     * The age in nanoseconds after which a window holding enough latencies is completed.
+     */
+    private static final long WINDOW_TIME = TimeUnit.SECONDS.toNanos(30);
+
+    /**
+     * The percentile of the latencies after which a hedge is sent.
+     */
+    private final double percentile;
+
+    /**
+     * The delay used until a window was completed, in nanoseconds.
+     */
+    private final long initialDelay;
+
+    /**
+     * The shortest delay in nanoseconds.
+     */
+    private final long minDelay;
+
+    /**
+     * The share of hedges added to the budget by every request.
+     */
+    private final double budgetRatio;
+
+    /**
+     * The latency windows by endpoint.
+     */
+    private final Map<Endpoint, Window> windows = new EnumMap<>(Endpoint.class);
+
+    /**
+     * The latency window of the requests matching no endpoint.
+     */
+    private final Window unmatched;
+
+    /**
+     * Guards the state below and the windows.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * The hedges available.
+     */
+    private double budget = BUDGET_CAP;
+
+    /**
+     * The number of hedges sent.
+     */
+    private final LongAdder hedges = new LongAdder();
+
+    /**
+     * The number of hedges answering first.
+     */
+    private final LongAdder wins = new LongAdder();
+
+    /**
+     * The number of hedges not sent because the budget was spent.
+     */
+    private final LongAdder budgetExhausted = new LongAdder();
+
+    /**
+     * The Constructor.
+     *
+     * @param builder the builder
+     */
+    private HedgingPolicy(HedgingPolicyBuilder builder) {
+        this.percentile = builder.percentile;
+        this.initialDelay = TimeUnit.MILLISECONDS.toNanos(builder.initialDelay);
+        this.minDelay = TimeUnit.MILLISECONDS.toNanos(builder.minDelay);
+        this.budgetRatio = builder.budgetRatio;
+        this.unmatched = new Window(Math.max(minDelay, initialDelay));
+    }
+
+    /**
+     * Adds the share of a new request to the budget and gets how long to wait before hedging it.
+     *
+     * @param endpoint the endpoint of the request, null if it matches none
+     * @return the delay in nanoseconds
+     */
+    long onRequest(Endpoint endpoint) {
+        lock.lock();
+        try {
+            budget = Math.min(BUDGET_CAP, budget + budgetRatio);
+            return window(endpoint).delay;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes a hedge from the budget.
+     *
+     * @return true, if the hedge can be sent
+     */
+    boolean tryHedge() {
+        lock.lock();
+        try {
+            if (budget < 1) {
+                budgetExhausted.increment();
+                return false;
+            }
+            budget--;
+        } finally {
+            lock.unlock();
+        }
+        hedges.increment();
+        return true;
+    }
+
+    /**
+     * Records the latency of an attempt, first or hedge, and completes the window of its endpoint once it is full or
+     * old enough.
+     *
+     * @param endpoint the endpoint of the request, null if it matches none
+     * @param latency the latency in nanoseconds
+     */
+    void record(Endpoint endpoint, long latency) {
+        lock.lock();
+        try {
+            Window window = window(endpoint);
+            window.latencies.record(latency);
+            long count = window.latencies.getCount();
+            if (count >= WINDOW_SIZE || (count >= MIN_SAMPLES && System.nanoTime() - window.start >= WINDOW_TIME)) {
+                window.delay = Math.max(minDelay, window.latencies.getPercentile(percentile));
+                window.latencies = new LatencyHistogram();
+                window.start = System.nanoTime();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the window of an endpoint, creating it if needed. Must be called holding the lock.
+     *
+     * @param endpoint the endpoint, null for the requests matching none
+     * @return the window
+     */
+    private Window window(Endpoint endpoint) {
+        if (endpoint == null) {
+            return unmatched;
+        }
+        return windows.computeIfAbsent(endpoint, key -> new Window(Math.max(minDelay, initialDelay)));
+    }
+
+    /**
+     * Records that a hedge answered first.
+     */
+    void onHedgeWon() {
+        wins.increment();
+    }
+
+    /**
+     * Gets the latencies of an endpoint in the current window.
+     *
+     * @param endpoint the endpoint, null for the requests matching none
+     * @return the latencies
+     */
+    public LatencyHistogram getLatencies(Endpoint endpoint) {
+        lock.lock();
+        try {
+            return window(endpoint).latencies;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the current delay before a request to an endpoint is hedged.
+     *
+     * @param endpoint the endpoint, null for the requests matching none
+     * @return the delay in nanoseconds
+     */
+    public long getDelay(Endpoint endpoint) {
+        lock.lock();
+        try {
+            return window(endpoint).delay;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of hedges sent.
+     *
+     * @return the hedge count
+     */
+    public long getHedgeCount() {
+        return hedges.sum();
+    }
+
+    /**
+     * Gets the number of hedges whose response was used.
+     *
+     * @return the win count
+     */
+    public long getWinCount() {
+        return wins.sum();
+    }
+
+    /**
+     * Gets the number of hedges not sent because the budget was spent.
+     *
+     * @return the budget exhausted count
+     */
+    public long getBudgetExhaustedCount() {
+        return budgetExhausted.sum();
+    }
+
+    /**
+     * The latencies observed for an endpoint since the last window was completed, and the delay taken from it.
+     */
+    private static final class Window {
+
+        /**
+         * The latencies of the current window.
+         */
+        private LatencyHistogram latencies = new LatencyHistogram();
+
+        /**
+         * The start of the current window.
+         */
+        private long start = System.nanoTime();
+
+        /**
+         * The delay in nanoseconds, from the last complete window.
+         */
+        private long delay;
+
+        /**
+         * Instantiates a new window.
+         *
+         * @param delay the delay until the first window is complete
+         */
+        private Window(long delay) {
+            this.delay = delay;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "HedgingPolicy [percentile=" + percentile + ", hedges=" + getHedgeCount()
+                + ", wins=" + getWinCount() + ", budgetExhausted=" + getBudgetExhaustedCount() + "]";
+    }
+
+    /**
+     * The Class HedgingPolicyBuilder.
+     */
+    public static class HedgingPolicyBuilder {
+
+        /**
+         * The percentile.
+         */
+        private double percentile = 95;
+
+        /**
+         * The initial delay in milliseconds.
+         */
+        private long initialDelay = 100;
+
+        /**
+         * The min delay in milliseconds.
+         */
+        private long minDelay = 1;
+
+        /**
+         * The budget ratio.
+         */
+        private double budgetRatio = 0.05;
+
+        /**
+         * Percentile of the observed latencies after which a hedge is sent. Defaults to 95, so about one request in
+         * twenty is hedged.
+         *
+         * @param percentile the percentile, between 0 and 100
+         * @return the hedging policy builder
+         */
+        public HedgingPolicyBuilder percentile(double percentile) {
+            if (percentile <= 0 || percentile > 100) {
+                throw new IllegalArgumentException("The percentile must be above 0 and at most 100");
+            }
+            this.percentile = percentile;
+            return this;
+        }
+
+        /**
+         * Delay in milliseconds before a hedge is sent until a window of latencies was completed for the endpoint.
+         * Defaults to 100.
+         *
+         * @param initialDelay the initial delay
+         * @return the hedging policy builder
+         */
+        public HedgingPolicyBuilder initialDelay(long initialDelay) {
+            this.initialDelay = initialDelay;
+            return this;
+        }
+
+        /**
+         * Shortest delay in milliseconds before a hedge is sent, however fast the server usually answers. Defaults to
+         * 1.
+         *
+         * @param minDelay the min delay
+         * @return the hedging policy builder
+         */
+        public HedgingPolicyBuilder minDelay(long minDelay) {
+            this.minDelay = minDelay;
+            return this;
+        }
+
+        /**
+         * Share of hedges each request adds to the budget, which caps the extra load hedging causes. Defaults to 0.05,
+         * at most 5% more requests.
+         *
+         * @param budgetRatio the budget ratio
+         * @return the hedging policy builder
+         */
+        public HedgingPolicyBuilder budgetRatio(double budgetRatio) {
+            if (budgetRatio < 0) {
+                throw new IllegalArgumentException("The budget ratio must not be negative");
+            }
+            this.budgetRatio = budgetRatio;
+            return this;
+        }
+
+        /**
+         * Builds the.
+         *
+         * @return the hedging policy
+         */
+        public HedgingPolicy build() {
+            return new HedgingPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.igniterealtime.restclient;
+
+import java.net.http.HttpClient;
+
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.jnh.connector.JavaNetHttpClientProperties;
+import org.glassfish.jersey.jnh.connector.JavaNetHttpConnectorProvider;
+
+/**
+ * Wires Jersey to {@link HttpClient}, which multiplexes concurrent requests over a single HTTP/2 connection. Kept in
+ * its own class so the optional connector dependency is only loaded when
+ * {@link org.igniterealtime.restclient.enums.SupportedConnector#HTTP2} is selected.
+ */
+final class Http2ConnectorSupport {
+
+    /**
+     * Instantiates the HTTP/2 connector support.
+     */
+    private Http2ConnectorSupport() {
+    }
+
+    /**
+     * Installs the java.net.http connector preferring HTTP/2. Servers and proxies without HTTP/2 support are talked
+     * to over HTTP/1.1 (ALPN for https, h2c upgrade for plain http).
+     *
+     * @param clientConfig the client config
+     */
+    static void configure(ClientConfig clientConfig) {
+        clientConfig.connectorProvider(new JavaNetHttpConnectorProvider());
+        clientConfig.property(JavaNetHttpClientProperties.HTTP_VERSION, HttpClient.Version.HTTP_2);
+    }
+
+}
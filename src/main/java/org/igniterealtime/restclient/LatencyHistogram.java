@@ -0,0 +1,157 @@
+package org.igniterealtime.restclient;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock free histogram of latencies. Values are counted in microsecond buckets growing exponentially with eight
+ * sub-buckets per power of two, so percentiles are accurate to about 6% at any scale while the histogram keeps a fixed
+ * size however many values it records.
+ */
+public final class LatencyHistogram {
+
+    /**
+     * The number of sub-buckets per power of two, as a power of two.
+     */
+    private static final int SUB_BUCKET_BITS = 3;
+
+    /**
+     * The number of sub-buckets per power of two.
+     */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Values below this many microseconds get a bucket each.
+     */
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+
+    /**
+     * The power of two of the linear limit.
+     */
+    private static final int LINEAR_BITS = SUB_BUCKET_BITS + 1;
+
+    /**
+     * The counts by bucket.
+     */
+    private final AtomicLongArray counts = new AtomicLongArray(LINEAR_LIMIT + (63 - LINEAR_BITS) * SUB_BUCKETS);
+
+    /**
+     * The number of values.
+     */
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * The sum of the values in nanoseconds.
+     */
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * The largest value in nanoseconds.
+     */
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucket(TimeUnit.NANOSECONDS.toMicros(value)));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Gets the number of recorded latencies.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the mean latency.
+     *
+     * @return the mean in nanoseconds, 0 if nothing was recorded
+     */
+    public long getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : sum.sum() / n;
+    }
+
+    /**
+     * Gets the largest latency.
+     *
+     * @return the max in nanoseconds
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets the latency below which the given share of the recorded latencies fall.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the latency in nanoseconds, 0 if nothing was recorded
+     */
+    public long getPercentile(double percentile) {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(TimeUnit.MICROSECONDS.toNanos(midpoint(i)), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Gets the bucket of a value.
+     *
+     * @param micros the value in microseconds
+     * @return the bucket index
+     */
+    private static int bucket(long micros) {
+        if (micros < LINEAR_LIMIT) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - LINEAR_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Gets the value in the middle of a bucket.
+     *
+     * @param bucket the bucket index
+     * @return the value in microseconds
+     */
+    private static long midpoint(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + LINEAR_BITS;
+        int subBucket = (bucket - LINEAR_LIMIT) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (SUB_BUCKETS + subBucket) * width + width / 2;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram [count=" + getCount() + ", mean=" + getMean() + ", p50=" + getPercentile(50)
+                + ", p99=" + getPercentile(99) + ", max=" + getMax() + "]";
+    }
+}
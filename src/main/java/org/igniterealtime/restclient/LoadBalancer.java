@@ -0,0 +1,82 @@
+package org.igniterealtime.restclient;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chooses the node of an Openfire cluster each request is sent to.
+ */
+@FunctionalInterface
+public interface LoadBalancer {
+
+    /**
+     * Chooses a node.
+     *
+     * @param nodes the available nodes, never empty
+     * @return the chosen node
+     */
+    ClusterNode choose(List<ClusterNode> nodes);
+
+    /**
+     * Sends requests to the nodes in turn.
+     *
+     * @return the load balancer
+     */
+    static LoadBalancer roundRobin() {
+        AtomicInteger next = new AtomicInteger();
+        return nodes -> nodes.get(Math.floorMod(next.getAndIncrement(), nodes.size()));
+    }
+
+    /**
+     * Sends each request to the node with the fewest requests in flight, ties broken at random.
+     *
+     * @return the load balancer
+     */
+    static LoadBalancer leastOutstanding() {
+        return nodes -> {
+            int offset = ThreadLocalRandom.current().nextInt(nodes.size());
+            ClusterNode best = null;
+            for (int i = 0; i < nodes.size(); i++) {
+                ClusterNode node = nodes.get((offset + i) % nodes.size());
+                if (best == null || node.getOutstanding() < best.getOutstanding()) {
+                    best = node;
+                }
+            }
+            return best;
+        };
+    }
+
+    /**
+     * Picks two nodes at random and sends the request to the one with the lower observed latency weighted by its
+     * requests in flight. Nodes without a latency yet are preferred, so new and readmitted nodes warm up quickly.
+     *
+     * @return the load balancer
+     */
+    static LoadBalancer powerOfTwoChoices() {
+        return nodes -> {
+            if (nodes.size() == 1) {
+                return nodes.get(0);
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int first = random.nextInt(nodes.size());
+            int second = random.nextInt(nodes.size() - 1);
+            if (second >= first) {
+                second++;
+            }
+            ClusterNode a = nodes.get(first);
+            ClusterNode b = nodes.get(second);
+            return cost(b) < cost(a) ? b : a;
+        };
+    }
+
+    /**
+     * Gets the expected cost of sending a request to a node.
+     *
+     * @param node the node
+     * @return the cost
+     */
+    private static double cost(ClusterNode node) {
+        return (double) node.getLatency() * (node.getOutstanding() + 1);
+    }
+}
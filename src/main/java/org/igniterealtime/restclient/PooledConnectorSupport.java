@@ -0,0 +1,92 @@
+package org.igniterealtime.restclient;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.glassfish.jersey.apache5.connector.Apache5ClientProperties;
+import org.glassfish.jersey.apache5.connector.Apache5ConnectorProvider;
+import org.glassfish.jersey.apache5.connector.Apache5HttpClientBuilderConfigurator;
+import org.glassfish.jersey.client.ClientConfig;
+
+/**
+ * Wires Jersey to Apache HttpClient 5 with a pooling connection manager. Kept in its own class so the optional
+ * Apache dependency is only loaded when {@link org.igniterealtime.restclient.enums.SupportedConnector#APACHE_POOLED}
+ * is selected.
+ */
+final class PooledConnectorSupport {
+
+    /**
+     * The connection manager.
+     */
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    /**
+     * The idle timeout in milliseconds.
+     */
+    private final int idleTimeout;
+
+    /**
+     * Instantiates the pooled connector support.
+     *
+     * @param maxConnections the max connections in total
+     * @param maxConnectionsPerRoute the max connections per route
+     * @param idleTimeout the idle timeout in milliseconds
+     * @param validateAfterInactivity the inactivity in milliseconds after which a connection is validated
+     * @param sslContext the ssl context, or null for plain http
+     * @param hostnameVerifier the hostname verifier used with the ssl context, null for the default verification
+     */
+    PooledConnectorSupport(
+            int maxConnections,
+            int maxConnectionsPerRoute,
+            int idleTimeout,
+            int validateAfterInactivity,
+            SSLContext sslContext,
+            HostnameVerifier hostnameVerifier) {
+        this.idleTimeout = idleTimeout;
+        PoolingHttpClientConnectionManagerBuilder builder = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setValidateAfterInactivity(validateAfterInactivity, TimeUnit.MILLISECONDS)
+                        .build());
+        if (sslContext != null) {
+            builder.setSSLSocketFactory(new SSLConnectionSocketFactory(sslContext, hostnameVerifier));
+        }
+        this.connectionManager = builder.build();
+    }
+
+    /**
+     * Installs the Apache connector and the connection manager into the client config. The connection manager is
+     * closed together with the client.
+     *
+     * @param clientConfig the client config
+     */
+    void configure(ClientConfig clientConfig) {
+        clientConfig.connectorProvider(new Apache5ConnectorProvider());
+        clientConfig.property(Apache5ClientProperties.CONNECTION_MANAGER, connectionManager);
+        clientConfig.property(Apache5ClientProperties.CONNECTION_MANAGER_SHARED, false);
+        if (idleTimeout > 0) {
+            clientConfig.register((Apache5HttpClientBuilderConfigurator) httpClientBuilder -> httpClientBuilder
+                    .evictIdleConnections(TimeValue.ofMilliseconds(idleTimeout)));
+        }
+    }
+
+    /**
+     * Gets the current pool statistics.
+     *
+     * @return the pool statistics
+     */
+    ConnectionPoolStats getStats() {
+        PoolStats stats = connectionManager.getTotalStats();
+        return new ConnectionPoolStats(stats.getLeased(), stats.getPending(), stats.getAvailable(), stats.getMax());
+    }
+
+}
@@ -0,0 +1,159 @@
+package org.igniterealtime.restclient;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A token bucket limiting the rate of requests. The bucket holds up to a burst of permits and refills at a steady rate.
+ * A caller finding it empty reserves the next permit and waits for it, so waiting callers are served in arrival order
+ * and the rate holds however many callers there are.
+ */
+public final class RateLimiter {
+
+    /**
+     * The permits added per second.
+     */
+    private final double permitsPerSecond;
+
+    /**
+     * The maximum number of stored permits.
+     */
+    private final int burst;
+
+    /**
+     * Guards the bucket.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * The stored permits, negative when permits are reserved ahead.
+     */
+    private double permits;
+
+    /**
+     * When the permits were last refilled, in nanoseconds.
+     */
+    private long refilled = System.nanoTime();
+
+    /**
+     * The wait of every caller.
+     */
+    private final LatencyHistogram waits = new LatencyHistogram();
+
+    /**
+     * The number of callers that had to wait.
+     */
+    private final LongAdder throttled = new LongAdder();
+
+    /**
+     * The total wait in nanoseconds.
+     */
+    private final LongAdder totalWait = new LongAdder();
+
+    /**
+     * Instantiates a new rate limiter with a full bucket.
+     *
+     * @param permitsPerSecond the permits added per second
+     * @param burst the maximum number of stored permits
+     */
+    public RateLimiter(double permitsPerSecond, int burst) {
+        if (!(permitsPerSecond > 0)) {
+            throw new IllegalArgumentException("The rate must be positive");
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("The burst must be at least 1");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.permits = burst;
+    }
+
+    /**
+     * Takes a permit, reserving the next one if the bucket is empty.
+     *
+     * @return the time to wait before using the permit in nanoseconds, 0 if it can be used at once
+     */
+    public long reserve() {
+        long wait;
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            permits = Math.min(burst, permits + (now - refilled) * permitsPerSecond / TimeUnit.SECONDS.toNanos(1));
+            refilled = now;
+            permits--;
+            wait = permits >= 0 ? 0 : (long) (-permits * TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        } finally {
+            lock.unlock();
+        }
+        waits.record(wait);
+        if (wait > 0) {
+            throttled.increment();
+            totalWait.add(wait);
+        }
+        return wait;
+    }
+
+    /**
+     * Takes a permit, waiting for it if the bucket is empty.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        long wait = reserve();
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    /**
+     * Gets the permits added per second.
+     *
+     * @return the permits per second
+     */
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    /**
+     * Gets the maximum number of stored permits.
+     *
+     * @return the burst
+     */
+    public int getBurst() {
+        return burst;
+    }
+
+    /**
+     * Gets the number of callers that had to wait.
+     *
+     * @return the throttled count
+     */
+    public long getThrottledCount() {
+        return throttled.sum();
+    }
+
+    /**
+     * Gets the total time callers waited.
+     *
+     * @return the total wait in nanoseconds
+     */
+    public long getTotalWait() {
+        return totalWait.sum();
+    }
+
+    /**
+     * Gets the distribution of the waits of all callers, including those that did not wait.
+     *
+     * @return the waits
+     */
+    public LatencyHistogram getWaits() {
+        return waits;
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimiter [permitsPerSecond=" + permitsPerSecond + ", burst=" + burst + ", throttled="
+                + getThrottledCount() + ", totalWait=" + getTotalWait() + "]";
+    }
+}
@@ -0,0 +1,337 @@
+package org.igniterealtime.restclient;
+
+import java.io.Closeable;
+import java.lang.annotation.Annotation;
+import java.net.URI;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.GenericType;
+import jakarta.ws.rs.core.Link;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.NewCookie;
+import jakarta.ws.rs.core.Response;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reports responses handed to callers that are not closed in time. A sample of the responses is wrapped and
+ * remembered together with the stack of the call that created it. A background sweep logs every remembered response
+ * still open after the leak timeout, once.
+ */
+class ResponseLeakDetector implements AutoCloseable {
+
+    /**
+     * The Constant LOG.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(ResponseLeakDetector.class);
+
+    /**
+     * The share of responses tracked, between 0 and 1.
+     */
+    private final double sampleRate;
+
+    /**
+     * The time in milliseconds after which an open response is reported.
+     */
+    private final long leakTimeout;
+
+    /**
+     * The tracked responses that are still open.
+     */
+    private final Set<TrackedResponse> open = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The number of responses reported as leaked.
+     */
+    private final AtomicLong leaked = new AtomicLong();
+
+    /**
+     * The scheduler running the sweep.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Instantiates a new response leak detector.
+     *
+     * @param sampleRate the share of responses tracked
+     * @param leakTimeout the leak timeout in milliseconds
+     */
+    ResponseLeakDetector(double sampleRate, long leakTimeout) {
+        this.sampleRate = sampleRate;
+        this.leakTimeout = leakTimeout;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rest-client-leak-detector");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(100, Math.min(leakTimeout, 1000));
+        this.scheduler.scheduleWithFixedDelay(this::sweep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Tracks a response if it is sampled.
+     *
+     * @param response the response
+     * @param method the HTTP method of the request
+     * @param restPath the rest path of the request
+     * @return the tracked response, or the response itself if it is not sampled
+     */
+    Response track(Response response, String method, String restPath) {
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return response;
+        }
+        TrackedResponse tracked = new TrackedResponse(response,
+                new Throwable(method + " " + restPath + " created here"));
+        open.add(tracked);
+        return tracked;
+    }
+
+    /**
+     * Gets the number of responses reported as leaked.
+     *
+     * @return the leaked count
+     */
+    long getLeakedCount() {
+        return leaked.get();
+    }
+
+    /**
+     * Reports the responses open longer than the leak timeout.
+     */
+    private void sweep() {
+        long deadline = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(leakTimeout);
+        for (TrackedResponse tracked : open) {
+            if (tracked.createdAt - deadline < 0 && open.remove(tracked)) {
+                leaked.incrementAndGet();
+                LOG.warn("Response was not closed within {} ms, the connection it holds is leaked", leakTimeout,
+                        tracked.creation);
+            }
+        }
+    }
+
+    /**
+     * Stops the sweep.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        open.clear();
+    }
+
+    /**
+     * A response that tells the detector when it is released. Reading an entity that is not a stream releases the
+     * connection just like closing the response does.
+     */
+    private final class TrackedResponse extends Response {
+
+        /**
+         * The delegate.
+         */
+        private final Response delegate;
+
+        /**
+         * The stack of the call that created the response.
+         */
+        private final Throwable creation;
+
+        /**
+         * The creation time in nanoseconds.
+         */
+        private final long createdAt = System.nanoTime();
+
+        /**
+         * Whether the response has been released.
+         */
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        /**
+         * Instantiates a new tracked response.
+         *
+         * @param delegate the delegate
+         * @param creation the creation stack
+         */
+        TrackedResponse(Response delegate, Throwable creation) {
+            this.delegate = delegate;
+            this.creation = creation;
+        }
+
+        /**
+         * Marks the response released.
+         */
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                open.remove(this);
+            }
+        }
+
+        /**
+         * Marks the response released unless the entity read keeps the connection open.
+         *
+         * @param <T> the entity type
+         * @param entity the entity
+         * @return the entity
+         */
+        private <T> T released(T entity) {
+            if (!(entity instanceof Closeable)) {
+                release();
+            }
+            return entity;
+        }
+
+        @Override
+        public int getStatus() {
+            return delegate.getStatus();
+        }
+
+        @Override
+        public StatusType getStatusInfo() {
+            return delegate.getStatusInfo();
+        }
+
+        @Override
+        public Object getEntity() {
+            return delegate.getEntity();
+        }
+
+        @Override
+        public <T> T readEntity(Class<T> entityType) {
+            return released(delegate.readEntity(entityType));
+        }
+
+        @Override
+        public <T> T readEntity(GenericType<T> entityType) {
+            return released(delegate.readEntity(entityType));
+        }
+
+        @Override
+        public <T> T readEntity(Class<T> entityType, Annotation[] annotations) {
+            return released(delegate.readEntity(entityType, annotations));
+        }
+
+        @Override
+        public <T> T readEntity(GenericType<T> entityType, Annotation[] annotations) {
+            return released(delegate.readEntity(entityType, annotations));
+        }
+
+        @Override
+        public boolean hasEntity() {
+            return delegate.hasEntity();
+        }
+
+        @Override
+        public boolean bufferEntity() {
+            boolean buffered = delegate.bufferEntity();
+            release();
+            return buffered;
+        }
+
+        @Override
+        public void close() {
+            release();
+            delegate.close();
+        }
+
+        @Override
+        public boolean isClosed() {
+            return delegate.isClosed();
+        }
+
+        @Override
+        public MediaType getMediaType() {
+            return delegate.getMediaType();
+        }
+
+        @Override
+        public Locale getLanguage() {
+            return delegate.getLanguage();
+        }
+
+        @Override
+        public int getLength() {
+            return delegate.getLength();
+        }
+
+        @Override
+        public Set<String> getAllowedMethods() {
+            return delegate.getAllowedMethods();
+        }
+
+        @Override
+        public Map<String, NewCookie> getCookies() {
+            return delegate.getCookies();
+        }
+
+        @Override
+        public EntityTag getEntityTag() {
+            return delegate.getEntityTag();
+        }
+
+        @Override
+        public Date getDate() {
+            return delegate.getDate();
+        }
+
+        @Override
+        public Date getLastModified() {
+            return delegate.getLastModified();
+        }
+
+        @Override
+        public URI getLocation() {
+            return delegate.getLocation();
+        }
+
+        @Override
+        public Set<Link> getLinks() {
+            return delegate.getLinks();
+        }
+
+        @Override
+        public boolean hasLink(String relation) {
+            return delegate.hasLink(relation);
+        }
+
+        @Override
+        public Link getLink(String relation) {
+            return delegate.getLink(relation);
+        }
+
+        @Override
+        public Link.Builder getLinkBuilder(String relation) {
+            return delegate.getLinkBuilder(relation);
+        }
+
+        @Override
+        public MultivaluedMap<String, Object> getMetadata() {
+            return delegate.getMetadata();
+        }
+
+        @Override
+        public MultivaluedMap<String, String> getStringHeaders() {
+            return delegate.getStringHeaders();
+        }
+
+        @Override
+        public String getHeaderString(String name) {
+            return delegate.getHeaderString(name);
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package org.igniterealtime.restclient;
 
 import jakarta.ws.rs.core.Response;
-import java.util.HashMap;
 import java.util.Map;
-
-
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import org.igniterealtime.restclient.RestClient.RestClientBuilder;
+import org.igniterealtime.restclient.bulk.BulkExecutor;
+import org.igniterealtime.restclient.bulk.BulkOptions;
+import org.igniterealtime.restclient.bulk.BulkResult;
 import org.igniterealtime.restclient.entity.AuthenticationToken;
 import org.igniterealtime.restclient.entity.GroupEntities;
 import org.igniterealtime.restclient.entity.GroupEntity;
@@ -16,21 +19,26 @@ import org.igniterealtime.restclient.entity.ParticipantEntities;
 import org.igniterealtime.restclient.entity.RosterEntities;
 import org.igniterealtime.restclient.entity.RosterItemEntity;
 import org.igniterealtime.restclient.entity.SessionEntities;
+import org.igniterealtime.restclient.entity.SessionEntity;
 import org.igniterealtime.restclient.entity.SystemProperties;
 import org.igniterealtime.restclient.entity.SystemProperty;
 import org.igniterealtime.restclient.entity.UserEntities;
 import org.igniterealtime.restclient.entity.UserEntity;
 import org.igniterealtime.restclient.entity.UserGroupsEntity;
 import org.igniterealtime.restclient.enums.SupportedMediaType;
+import org.igniterealtime.restclient.stream.EntityPublisher;
 
 /**
  * The Class RestApiClient.
  */
-public class RestApiClient {
+public class RestApiClient implements AutoCloseable {
 
 	/** The rest client. */
 	private RestClient restClient;
 
+	/** The entity cache, null if entities are not cached. */
+	private EntityCache cache;
+
 	/**
 	 * Instantiates a new rest api client.
 	 *
@@ -121,13 +129,36 @@ public class RestApiClient {
 				.build();
 	}
 
+	/**
+	 * Instantiates a new rest api client on top of a configured rest client.
+	 *
+	 * @param restClient
+	 *                   the rest client, built with {@link RestClientBuilder}
+	 */
+	public RestApiClient(RestClient restClient) {
+		this.restClient = restClient;
+	}
+
+	/**
+	 * Instantiates a new rest api client caching single users, groups, chat rooms, system properties and user groups.
+	 *
+	 * @param restClient
+	 *                   the rest client, built with {@link RestClientBuilder}
+	 * @param cache
+	 *                   the entity cache
+	 */
+	public RestApiClient(RestClient restClient, EntityCache cache) {
+		this.restClient = restClient;
+		this.cache = cache;
+	}
+
 	/**
 	 * Gets the users.
 	 *
 	 * @return the users
 	 */
 	public UserEntities getUsers() {
-		return restClient.get("users", UserEntities.class, new HashMap<>());
+		return restClient.get(Endpoint.USERS);
 	}
 
 	/**
@@ -138,7 +169,79 @@ public class RestApiClient {
 	 * @return the users
 	 */
 	public UserEntities getUsers(Map<String, String> queryParams) {
-		return restClient.get("users", UserEntities.class, queryParams);
+		return restClient.get(Endpoint.USERS, queryParams);
+	}
+
+	/**
+	 * Publishes the users as they are decoded from the response, honoring the
+	 * subscriber's demand.
+	 *
+	 * @return the users publisher
+	 */
+	public EntityPublisher<UserEntity> publishUsers() {
+		return restClient.publish(Endpoint.USERS, "user", UserEntity.class, null);
+	}
+
+	/**
+	 * Publishes the users as they are decoded from the response, honoring the
+	 * subscriber's demand.
+	 *
+	 * @param queryParams
+	 *                    the query params
+	 * @return the users publisher
+	 */
+	public EntityPublisher<UserEntity> publishUsers(Map<String, String> queryParams) {
+		return restClient.publish(Endpoint.USERS, "user", UserEntity.class, queryParams);
+	}
+
+	/**
+	 * Streams the users as they are decoded from the response, so memory use
+	 * does not grow with their number. Close the stream, e.g. with
+	 * try-with-resources, unless it is read to the end.
+	 *
+	 * @return the users stream
+	 */
+	public Stream<UserEntity> streamUsers() {
+		return restClient.stream(Endpoint.USERS, "user", UserEntity.class, null);
+	}
+
+	/**
+	 * Streams the users as they are decoded from the response, so memory use
+	 * does not grow with their number. Close the stream, e.g. with
+	 * try-with-resources, unless it is read to the end.
+	 *
+	 * @param queryParams
+	 *                    the query params
+	 * @return the users stream
+	 */
+	public Stream<UserEntity> streamUsers(Map<String, String> queryParams) {
+		return restClient.stream(Endpoint.USERS, "user", UserEntity.class, queryParams);
+	}
+
+	/**
+	 * Hands the users to an action one at a time, as they are decoded from
+	 * the response.
+	 *
+	 * @param action
+	 *               the action
+	 * @return the number of users
+	 */
+	public long forEachUser(Consumer<? super UserEntity> action) {
+		return restClient.forEach(Endpoint.USERS, "user", UserEntity.class, null, action);
+	}
+
+	/**
+	 * Hands the users to an action one at a time, as they are decoded from
+	 * the response.
+	 *
+	 * @param queryParams
+	 *                    the query params
+	 * @param action
+	 *                    the action
+	 * @return the number of users
+	 */
+	public long forEachUser(Map<String, String> queryParams, Consumer<? super UserEntity> action) {
+		return restClient.forEach(Endpoint.USERS, "user", UserEntity.class, queryParams, action);
 	}
 
 	/**
@@ -149,7 +252,19 @@ public class RestApiClient {
 	 * @return the user
 	 */
 	public UserEntity getUser(String username) {
-		return restClient.get("users/" + username, UserEntity.class, new HashMap<>());
+		return cached(Endpoint.USER, username, () -> restClient.get(Endpoint.USER, username));
+	}
+
+	/**
+	 * Checks if a user exists without reading it. A missing user is answered with false rather than an
+	 * exception.
+	 *
+	 * @param username
+	 *                 the username
+	 * @return true, if the user exists
+	 */
+	public boolean userExists(String username) {
+		return exists(Endpoint.USER, username);
 	}
 
 	/**
@@ -160,7 +275,23 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response createUser(UserEntity userEntity) {
-		return restClient.post("users", userEntity, new HashMap<>());
+		return mutate(Endpoint.CREATE_USER, userEntity);
+	}
+
+	/**
+	 * Creates many users, sending up to the configured number of requests at a time. Users are taken from the input
+	 * only as requests complete, so it may be a lazily produced sequence. Existing users are reported as conflicts
+	 * rather than failing the operation.
+	 *
+	 * @param users
+	 *                the users
+	 * @param options
+	 *                the bulk options
+	 * @return the outcome of every user and the stats of the operation
+	 */
+	public BulkResult<UserEntity> createUsers(Iterable<UserEntity> users, BulkOptions options) {
+		AsyncRestApiClient asyncClient = async();
+		return new BulkExecutor(options).run(users, asyncClient::createUser);
 	}
 
 	/**
@@ -171,7 +302,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response updateUser(UserEntity userEntity) {
-		return restClient.put("users/" + userEntity.getUsername(), userEntity, new HashMap<>());
+		return mutate(Endpoint.UPDATE_USER, userEntity, userEntity.getUsername());
 	}
 
 	/**
@@ -182,7 +313,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response deleteUser(String username) {
-		return restClient.delete("users/" + username, new HashMap<>());
+		return mutate(Endpoint.DELETE_USER, null, username);
 	}
 
 	/**
@@ -191,7 +322,7 @@ public class RestApiClient {
 	 * @return the chat rooms
 	 */
 	public MUCRoomEntities getChatRooms() {
-		return restClient.get("chatrooms", MUCRoomEntities.class, new HashMap<>());
+		return restClient.get(Endpoint.CHAT_ROOMS);
 	}
 
 	/**
@@ -202,7 +333,79 @@ public class RestApiClient {
 	 * @return the chat rooms
 	 */
 	public MUCRoomEntities getChatRooms(Map<String, String> queryParams) {
-		return restClient.get("chatrooms", MUCRoomEntities.class, queryParams);
+		return restClient.get(Endpoint.CHAT_ROOMS, queryParams);
+	}
+
+	/**
+	 * Publishes the chat rooms as they are decoded from the response, honoring
+	 * the subscriber's demand.
+	 *
+	 * @return the chat rooms publisher
+	 */
+	public EntityPublisher<MUCRoomEntity> publishChatRooms() {
+		return restClient.publish(Endpoint.CHAT_ROOMS, "chatRoom", MUCRoomEntity.class, null);
+	}
+
+	/**
+	 * Publishes the chat rooms as they are decoded from the response, honoring
+	 * the subscriber's demand.
+	 *
+	 * @param queryParams
+	 *                    the query params
+	 * @return the chat rooms publisher
+	 */
+	public EntityPublisher<MUCRoomEntity> publishChatRooms(Map<String, String> queryParams) {
+		return restClient.publish(Endpoint.CHAT_ROOMS, "chatRoom", MUCRoomEntity.class, queryParams);
+	}
+
+	/**
+	 * Streams the chat rooms as they are decoded from the response, so memory use
+	 * does not grow with their number. Close the stream, e.g. with
+	 * try-with-resources, unless it is read to the end.
+	 *
+	 * @return the chat rooms stream
+	 */
+	public Stream<MUCRoomEntity> streamChatRooms() {
+		return restClient.stream(Endpoint.CHAT_ROOMS, "chatRoom", MUCRoomEntity.class, null);
+	}
+
+	/**
+	 * Streams the chat rooms as they are decoded from the response, so memory use
+	 * does not grow with their number. Close the stream, e.g. with
+	 * try-with-resources, unless it is read to the end.
+	 *
+	 * @param queryParams
+	 *                    the query params
+	 * @return the chat rooms stream
+	 */
+	public Stream<MUCRoomEntity> streamChatRooms(Map<String, String> queryParams) {
+		return restClient.stream(Endpoint.CHAT_ROOMS, "chatRoom", MUCRoomEntity.class, queryParams);
+	}
+
+	/**
+	 * Hands the chat rooms to an action one at a time, as they are decoded from
+	 * the response.
+	 *
+	 * @param action
+	 *               the action
+	 * @return the number of chat rooms
+	 */
+	public long forEachChatRoom(Consumer<? super MUCRoomEntity> action) {
+		return restClient.forEach(Endpoint.CHAT_ROOMS, "chatRoom", MUCRoomEntity.class, null, action);
+	}
+
+	/**
+	 * Hands the chat rooms to an action one at a time, as they are decoded from
+	 * the response.
+	 *
+	 * @param queryParams
+	 *                    the query params
+	 * @param action
+	 *                    the action
+	 * @return the number of chat rooms
+	 */
+	public long forEachChatRoom(Map<String, String> queryParams, Consumer<? super MUCRoomEntity> action) {
+		return restClient.forEach(Endpoint.CHAT_ROOMS, "chatRoom", MUCRoomEntity.class, queryParams, action);
 	}
 
 	/**
@@ -213,7 +416,19 @@ public class RestApiClient {
 	 * @return the chat room
 	 */
 	public MUCRoomEntity getChatRoom(String roomName) {
-		return restClient.get("chatrooms/" + roomName, MUCRoomEntity.class, new HashMap<>());
+		return cached(Endpoint.CHAT_ROOM, roomName, () -> restClient.get(Endpoint.CHAT_ROOM, roomName));
+	}
+
+	/**
+	 * Checks if a chat room exists without reading it. A missing chat room is answered with false rather than an
+	 * exception.
+	 *
+	 * @param roomName
+	 *                 the room name
+	 * @return true, if the chat room exists
+	 */
+	public boolean chatRoomExists(String roomName) {
+		return exists(Endpoint.CHAT_ROOM, roomName);
 	}
 
 	/**
@@ -224,7 +439,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response createChatRoom(MUCRoomEntity chatRoom) {
-		return restClient.post("chatrooms", chatRoom, new HashMap<>());
+		return mutate(Endpoint.CREATE_CHAT_ROOM, chatRoom);
 	}
 
 	/**
@@ -235,7 +450,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response updateChatRoom(MUCRoomEntity chatRoom) {
-		return restClient.put("chatrooms/" + chatRoom.getRoomName(), chatRoom, new HashMap<>());
+		return mutate(Endpoint.UPDATE_CHAT_ROOM, chatRoom, chatRoom.getRoomName());
 	}
 
 	/**
@@ -246,7 +461,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response deleteChatRoom(String roomName) {
-		return restClient.delete("chatrooms/" + roomName, new HashMap<>());
+		return mutate(Endpoint.DELETE_CHAT_ROOM, null, roomName);
 	}
 
 	/**
@@ -257,8 +472,7 @@ public class RestApiClient {
 	 * @return the chat room participants
 	 */
 	public ParticipantEntities getChatRoomParticipants(String roomName) {
-		return restClient.get("chatrooms/" + roomName + "/participants", ParticipantEntities.class,
-				new HashMap<>());
+		return restClient.get(Endpoint.CHAT_ROOM_PARTICIPANTS, roomName);
 	}
 
 	/**
@@ -271,7 +485,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response addOwner(String roomName, String jid) {
-		return restClient.post("chatrooms/" + roomName + "/owners/" + jid, null, new HashMap<>());
+		return mutate(Endpoint.ADD_OWNER, null, roomName, jid);
 	}
 
 	/**
@@ -284,8 +498,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response deleteOwner(String roomName, String jid) {
-		return restClient.delete("chatrooms/" + roomName + "/owners/" + jid,
-				new HashMap<>());
+		return mutate(Endpoint.DELETE_OWNER, null, roomName, jid);
 	}
 
 	/**
@@ -298,7 +511,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response addAdmin(String roomName, String jid) {
-		return restClient.post("chatrooms/" + roomName + "/admins/" + jid, null, new HashMap<>());
+		return mutate(Endpoint.ADD_ADMIN, null, roomName, jid);
 	}
 
 	/**
@@ -311,8 +524,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response deleteAdmin(String roomName, String jid) {
-		return restClient.delete("chatrooms/" + roomName + "/admins/" + jid,
-				new HashMap<>());
+		return mutate(Endpoint.DELETE_ADMIN, null, roomName, jid);
 	}
 
 	/**
@@ -325,7 +537,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response addMember(String roomName, String jid) {
-		return restClient.post("chatrooms/" + roomName + "/members/" + jid, null, new HashMap<>());
+		return mutate(Endpoint.ADD_MEMBER, null, roomName, jid);
 	}
 
 	/**
@@ -338,8 +550,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response deleteMember(String roomName, String jid) {
-		return restClient.delete("chatrooms/" + roomName + "/members/" + jid,
-				new HashMap<>());
+		return mutate(Endpoint.DELETE_MEMBER, null, roomName, jid);
 	}
 
 	/**
@@ -352,7 +563,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response addOutcast(String roomName, String jid) {
-		return restClient.post("chatrooms/" + roomName + "/outcasts/" + jid, null, new HashMap<>());
+		return mutate(Endpoint.ADD_OUTCAST, null, roomName, jid);
 	}
 
 	/**
@@ -365,8 +576,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response deleteOutcast(String roomName, String jid) {
-		return restClient.delete("chatrooms/" + roomName + "/outcasts/" + jid,
-				new HashMap<>());
+		return mutate(Endpoint.DELETE_OUTCAST, null, roomName, jid);
 	}
 
 	/**
@@ -379,8 +589,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response addOwnerGroup(String roomName, String groupName) {
-		return restClient.post("chatrooms/" + roomName + "/owners/group/" + groupName, null,
-				new HashMap<>());
+		return mutate(Endpoint.ADD_OWNER_GROUP, null, roomName, groupName);
 	}
 
 	/**
@@ -393,8 +602,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response deleteOwnerGroup(String roomName, String groupName) {
-		return restClient.delete("chatrooms/" + roomName + "/owners/group/" + groupName,
-				new HashMap<>());
+		return mutate(Endpoint.DELETE_OWNER_GROUP, null, roomName, groupName);
 	}
 
 	/**
@@ -407,8 +615,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response addAdminGroup(String roomName, String groupName) {
-		return restClient.post("chatrooms/" + roomName + "/admins/group/" + groupName, null,
-				new HashMap<>());
+		return mutate(Endpoint.ADD_ADMIN_GROUP, null, roomName, groupName);
 	}
 
 	/**
@@ -421,8 +628,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response deleteAdminGroup(String roomName, String groupName) {
-		return restClient.delete("chatrooms/" + roomName + "/admins/group/" + groupName,
-				new HashMap<>());
+		return mutate(Endpoint.DELETE_ADMIN_GROUP, null, roomName, groupName);
 	}
 
 	/**
@@ -435,8 +641,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response addMemberGroup(String roomName, String groupName) {
-		return restClient.post("chatrooms/" + roomName + "/members/group/" + groupName, null,
-				new HashMap<>());
+		return mutate(Endpoint.ADD_MEMBER_GROUP, null, roomName, groupName);
 	}
 
 	/**
@@ -449,8 +654,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response deleteMemberGroup(String roomName, String groupName) {
-		return restClient.delete("chatrooms/" + roomName + "/members/group/" + groupName,
-				new HashMap<>());
+		return mutate(Endpoint.DELETE_MEMBER_GROUP, null, roomName, groupName);
 	}
 
 	/**
@@ -463,8 +667,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response addOutcastGroup(String roomName, String groupName) {
-		return restClient.post("chatrooms/" + roomName + "/outcasts/group/" + groupName, null,
-				new HashMap<>());
+		return mutate(Endpoint.ADD_OUTCAST_GROUP, null, roomName, groupName);
 	}
 
 	/**
@@ -477,8 +680,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response deleteOutcastGroup(String roomName, String groupName) {
-		return restClient.delete("chatrooms/" + roomName + "/outcasts/group/" + groupName,
-				new HashMap<>());
+		return mutate(Endpoint.DELETE_OUTCAST_GROUP, null, roomName, groupName);
 	}
 
 	/**
@@ -487,8 +689,40 @@ public class RestApiClient {
 	 * @return the sessions
 	 */
 	public SessionEntities getSessions() {
-		return restClient.get("sessions", SessionEntities.class,
-				new HashMap<>());
+		return restClient.get(Endpoint.SESSIONS);
+	}
+
+	/**
+	 * Publishes the sessions as they are decoded from the response, honoring
+	 * the subscriber's demand.
+	 *
+	 * @return the sessions publisher
+	 */
+	public EntityPublisher<SessionEntity> publishSessions() {
+		return restClient.publish(Endpoint.SESSIONS, "session", SessionEntity.class, null);
+	}
+
+	/**
+	 * Streams the sessions as they are decoded from the response, so memory use
+	 * does not grow with their number. Close the stream, e.g. with
+	 * try-with-resources, unless it is read to the end.
+	 *
+	 * @return the sessions stream
+	 */
+	public Stream<SessionEntity> streamSessions() {
+		return restClient.stream(Endpoint.SESSIONS, "session", SessionEntity.class, null);
+	}
+
+	/**
+	 * Hands the sessions to an action one at a time, as they are decoded from
+	 * the response.
+	 *
+	 * @param action
+	 *               the action
+	 * @return the number of sessions
+	 */
+	public long forEachSession(Consumer<? super SessionEntity> action) {
+		return restClient.forEach(Endpoint.SESSIONS, "session", SessionEntity.class, null, action);
 	}
 
 	/**
@@ -499,8 +733,7 @@ public class RestApiClient {
 	 * @return the sessions
 	 */
 	public SessionEntities getSessions(String username) {
-		return restClient.get("sessions/" + username, SessionEntities.class,
-				new HashMap<>());
+		return restClient.get(Endpoint.USER_SESSIONS, username);
 	}
 
 	/**
@@ -510,7 +743,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response deleteSessions(String username) {
-		return restClient.delete("sessions/" + username, new HashMap<>());
+		return mutate(Endpoint.DELETE_USER_SESSIONS, null, username);
 	}
 
 	/**
@@ -521,8 +754,7 @@ public class RestApiClient {
 	 * @return the user groups
 	 */
 	public UserGroupsEntity getUserGroups(String username) {
-		return restClient.get("users/" + username + "/groups", UserGroupsEntity.class,
-				new HashMap<>());
+		return cached(Endpoint.USER_GROUPS, username, () -> restClient.get(Endpoint.USER_GROUPS, username));
 	}
 
 	/**
@@ -535,8 +767,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response addUserToGroups(String username, UserGroupsEntity userGroupsEntity) {
-		return restClient.post("users/" + username + "/groups/", userGroupsEntity,
-				new HashMap<>());
+		return mutate(Endpoint.ADD_USER_TO_GROUPS, userGroupsEntity, username);
 	}
 
 	/**
@@ -547,8 +778,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response addUserToGroup(String username, String groupName) {
-		return restClient.post("users/" + username + "/groups/" + groupName, null,
-				new HashMap<>());
+		return mutate(Endpoint.ADD_USER_TO_GROUP, null, username, groupName);
 	}
 
 	/**
@@ -559,8 +789,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response deleteUserFromGroup(String username, String groupName) {
-		return restClient.delete("users/" + username + "/groups/" + groupName,
-				new HashMap<>());
+		return mutate(Endpoint.DELETE_USER_FROM_GROUP, null, username, groupName);
 	}
 
 	/**
@@ -571,7 +800,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response lockoutUser(String username) {
-		return restClient.post("lockouts/" + username, null, new HashMap<>());
+		return mutate(Endpoint.LOCKOUT_USER, null, username);
 	}
 
 	/**
@@ -582,7 +811,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response unlockUser(String username) {
-		return restClient.delete("lockouts/" + username, new HashMap<>());
+		return mutate(Endpoint.UNLOCK_USER, null, username);
 	}
 
 	/**
@@ -591,8 +820,7 @@ public class RestApiClient {
 	 * @return the system properties
 	 */
 	public SystemProperties getSystemProperties() {
-		return restClient.get("system/properties", SystemProperties.class,
-				new HashMap<>());
+		return restClient.get(Endpoint.SYSTEM_PROPERTIES);
 	}
 
 	/**
@@ -603,8 +831,8 @@ public class RestApiClient {
 	 * @return the system property
 	 */
 	public SystemProperty getSystemProperty(String propertyName) {
-		return restClient.get("system/properties/" + propertyName, SystemProperty.class,
-				new HashMap<>());
+		return cached(Endpoint.SYSTEM_PROPERTY, propertyName,
+				() -> restClient.get(Endpoint.SYSTEM_PROPERTY, propertyName));
 	}
 
 	/**
@@ -615,7 +843,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response createSystemProperty(SystemProperty property) {
-		return restClient.post("system/properties", property, new HashMap<>());
+		return mutate(Endpoint.CREATE_SYSTEM_PROPERTY, property);
 	}
 
 	/**
@@ -626,7 +854,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response updateSystemProperty(SystemProperty property) {
-		return restClient.put("system/properties/" + property.getKey(), property, new HashMap<>());
+		return mutate(Endpoint.UPDATE_SYSTEM_PROPERTY, property, property.getKey());
 	}
 
 	/**
@@ -637,7 +865,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response deleteSystemProperty(String propertyName) {
-		return restClient.delete("system/properties/" + propertyName, new HashMap<>());
+		return mutate(Endpoint.DELETE_SYSTEM_PROPERTY, null, propertyName);
 	}
 
 	/**
@@ -646,7 +874,40 @@ public class RestApiClient {
 	 * @return the groups
 	 */
 	public GroupEntities getGroups() {
-		return restClient.get("groups", GroupEntities.class, new HashMap<>());
+		return restClient.get(Endpoint.GROUPS);
+	}
+
+	/**
+	 * Publishes the groups as they are decoded from the response, honoring the
+	 * subscriber's demand.
+	 *
+	 * @return the groups publisher
+	 */
+	public EntityPublisher<GroupEntity> publishGroups() {
+		return restClient.publish(Endpoint.GROUPS, "group", GroupEntity.class, null);
+	}
+
+	/**
+	 * Streams the groups as they are decoded from the response, so memory use
+	 * does not grow with their number. Close the stream, e.g. with
+	 * try-with-resources, unless it is read to the end.
+	 *
+	 * @return the groups stream
+	 */
+	public Stream<GroupEntity> streamGroups() {
+		return restClient.stream(Endpoint.GROUPS, "group", GroupEntity.class, null);
+	}
+
+	/**
+	 * Hands the groups to an action one at a time, as they are decoded from
+	 * the response.
+	 *
+	 * @param action
+	 *               the action
+	 * @return the number of groups
+	 */
+	public long forEachGroup(Consumer<? super GroupEntity> action) {
+		return restClient.forEach(Endpoint.GROUPS, "group", GroupEntity.class, null, action);
 	}
 
 	/**
@@ -657,7 +918,19 @@ public class RestApiClient {
 	 * @return the group
 	 */
 	public GroupEntity getGroup(String groupName) {
-		return restClient.get("groups/" + groupName, GroupEntity.class, new HashMap<>());
+		return cached(Endpoint.GROUP, groupName, () -> restClient.get(Endpoint.GROUP, groupName));
+	}
+
+	/**
+	 * Checks if a group exists without reading it. A missing group is answered with false rather than an
+	 * exception.
+	 *
+	 * @param groupName
+	 *                  the groupName
+	 * @return true, if the group exists
+	 */
+	public boolean groupExists(String groupName) {
+		return exists(Endpoint.GROUP, groupName);
 	}
 
 	/**
@@ -668,7 +941,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response createGroup(GroupEntity group) {
-		return restClient.post("groups", group, new HashMap<>());
+		return mutate(Endpoint.CREATE_GROUP, group);
 	}
 
 	/**
@@ -679,7 +952,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response updateGroup(GroupEntity group) {
-		return restClient.put("groups/" + group.getName(), group, new HashMap<>());
+		return mutate(Endpoint.UPDATE_GROUP, group, group.getName());
 	}
 
 	/**
@@ -690,7 +963,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response deleteGroup(String groupName) {
-		return restClient.delete("groups/" + groupName, new HashMap<>());
+		return mutate(Endpoint.DELETE_GROUP, null, groupName);
 	}
 
 	/**
@@ -701,7 +974,7 @@ public class RestApiClient {
 	 * @return the roster
 	 */
 	public RosterEntities getRoster(String username) {
-		return restClient.get("users/" + username + "/roster", RosterEntities.class, new HashMap<>());
+		return restClient.get(Endpoint.ROSTER, username);
 	}
 
 	/**
@@ -714,7 +987,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response addRosterEntry(String username, RosterItemEntity rosterItemEntity) {
-		return restClient.post("users/" + username + "/roster", rosterItemEntity, new HashMap<>());
+		return mutate(Endpoint.ADD_ROSTER_ENTRY, rosterItemEntity, username);
 	}
 
 	/**
@@ -727,8 +1000,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response updateRosterEntry(String username, RosterItemEntity rosterItemEntity) {
-		return restClient.put("users/" + username + "/roster/" + rosterItemEntity.getJid(), rosterItemEntity,
-				new HashMap<>());
+		return mutate(Endpoint.UPDATE_ROSTER_ENTRY, rosterItemEntity, username, rosterItemEntity.getJid());
 	}
 
 	/**
@@ -741,7 +1013,7 @@ public class RestApiClient {
 	 * @return the response
 	 */
 	public Response deleteRosterEntry(String username, String jid) {
-		return restClient.delete("users/" + username + "/roster/" + jid, new HashMap<>());
+		return mutate(Endpoint.DELETE_ROSTER_ENTRY, null, username, jid);
 	}
 
 	/**
@@ -753,6 +1025,77 @@ public class RestApiClient {
 		return restClient;
 	}
 
+	/**
+	 * Gets the entity cache.
+	 *
+	 * @return the entity cache, null if entities are not cached
+	 */
+	public EntityCache getCache() {
+		return cache;
+	}
+
+	/**
+	 * Gets a non-blocking client sharing this client's rest client and entity cache.
+	 *
+	 * @return the async rest api client
+	 */
+	public AsyncRestApiClient async() {
+		return new AsyncRestApiClient(restClient, cache);
+	}
+
+	/**
+	 * Reads an entity through the cache, if any.
+	 *
+	 * @param <T> the entity type
+	 * @param endpoint the endpoint
+	 * @param key the key
+	 * @param loader the loader
+	 * @return the entity
+	 */
+	private <T> T cached(Endpoint endpoint, String key, Supplier<T> loader) {
+		return cache != null ? cache.get(endpoint, key, loader) : loader.get();
+	}
+
+	/**
+	 * Checks if a key exists through the cache, if any.
+	 *
+	 * @param endpoint the endpoint
+	 * @param key the key
+	 * @return true, if the key exists
+	 */
+	private boolean exists(Endpoint endpoint, String key) {
+		if (cache != null) {
+			return cache.exists(endpoint, key, () -> restClient.exists(endpoint, key));
+		}
+		return restClient.exists(endpoint, key);
+	}
+
+	/**
+	 * Calls an endpoint changing data and invalidates the cached entities it affects.
+	 *
+	 * @param endpoint the endpoint
+	 * @param payload the payload
+	 * @param pathParams the path params
+	 * @return the response
+	 */
+	private Response mutate(Endpoint endpoint, Object payload, String... pathParams) {
+		try {
+			return restClient.call(endpoint, payload, null, pathParams);
+		} finally {
+			if (cache != null) {
+				cache.invalidate(endpoint, payload, pathParams);
+			}
+		}
+	}
+
+	/**
+	 * Closes the underlying rest client and releases its connections.
+	 */
+	@Override
+	public void close() {
+		restClient.close();
+	}
+
 	/**
 	 * Adjust URL.
 	 *
@@ -1,25 +1,56 @@
 package org.igniterealtime.restclient;
 
-import java.net.URI;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
 import java.security.KeyManagementException;
+import java.security.KeyStore;
+import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.net.ssl.HostnameVerifier;
-import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLSession;
 import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
 import javax.net.ssl.X509TrustManager;
 import jakarta.ws.rs.ClientErrorException;
 import jakarta.ws.rs.HttpMethod;
 import jakarta.ws.rs.NotAuthorizedException;
+import jakarta.ws.rs.ProcessingException;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.ClientBuilder;
 import jakarta.ws.rs.client.Entity;
+import jakarta.ws.rs.client.Invocation;
 import jakarta.ws.rs.client.WebTarget;
 import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MultivaluedHashMap;
@@ -39,21 +70,39 @@ import org.glassfish.jersey.moxy.json.MoxyJsonFeature;
 import org.glassfish.jersey.moxy.xml.MoxyXmlFeature;
 import org.igniterealtime.restclient.entity.AuthenticationMode;
 import org.igniterealtime.restclient.entity.AuthenticationToken;
+import org.igniterealtime.restclient.enums.SupportedConnector;
 import org.igniterealtime.restclient.enums.SupportedMediaType;
+import org.igniterealtime.restclient.exception.CircuitBreakerOpenException;
 import org.igniterealtime.restclient.exception.ErrorResponse;
+import org.igniterealtime.restclient.stream.EntityIterator;
+import org.igniterealtime.restclient.stream.EntityPublisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * The Class RestClient.
  */
-public final class RestClient {
+public final class RestClient implements AutoCloseable {
 
     /**
      * The Constant LOG.
      */
     private static final Logger LOG = LoggerFactory.getLogger(RestClient.class);
 
+    /**
+     * The path of the REST API plugin below the base uri.
+     */
+    private static final String REST_API_PATH = "plugins/restapi/v1";
+
+    /**
+     * Accepts any host name, the certificates are not verified either.
+     */
+    private static final HostnameVerifier TRUST_ALL_HOSTNAMES = new HostnameVerifier() {
+        public boolean verify(String s, SSLSession sslSession) {
+            return true;
+        }
+    };
+
     /**
      * The uri.
      */
@@ -84,6 +133,147 @@ public final class RestClient {
      */
     private SupportedMediaType mediaType;
 
+    /**
+     * The connector.
+     */
+    private final SupportedConnector connector;
+
+    /**
+     * The max connections in total, used by pooling connectors.
+     */
+    private final int maxConnections;
+
+    /**
+     * The max connections per route, used by pooling connectors.
+     */
+    private final int maxConnectionsPerRoute;
+
+    /**
+     * The time in milliseconds after which idle pooled connections are evicted.
+     */
+    private final int idleTimeout;
+
+    /**
+     * The inactivity in milliseconds after which a pooled connection is validated before reuse.
+     */
+    private final int validateAfterInactivity;
+
+    /**
+     * The executor service running asynchronous requests, null for Jersey's default.
+     */
+    private final ExecutorService executorService;
+
+    /**
+     * Whether the executor service was created by this rest client and has to be shut down with it.
+     */
+    private final boolean ownsExecutorService;
+
+    /**
+     * The trust store verifying server certificates, null to trust any certificate.
+     */
+    private final KeyStore trustStore;
+
+    /**
+     * The hostname verifier, null for the connector's default verification.
+     */
+    private final HostnameVerifier hostnameVerifier;
+
+    /**
+     * The ssl context, created once and kept across client rebuilds so TLS sessions can be resumed.
+     */
+    private SSLContext sslContext;
+
+    /**
+     * Whether responses of calls expecting a {@link Response} are consumed and closed before they are returned.
+     */
+    private final boolean closeResponses;
+
+    /**
+     * The detector of responses that are not closed in time, null if disabled.
+     */
+    private final ResponseLeakDetector leakDetector;
+
+    /**
+     * The coalescing of identical GET requests in flight, null if disabled.
+     */
+    private final SingleFlight singleFlight;
+
+    /**
+     * The validators and entities of earlier GET requests, null if conditional GET requests are disabled.
+     */
+    private final RevalidationCache revalidationCache;
+
+    /**
+     * The rate limiter of each endpoint family, null if no rate limit is set.
+     */
+    private final Map<EndpointFamily, RateLimiter> rateLimiters;
+
+    /**
+     * The adaptive limit of requests in flight, null if disabled.
+     */
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    /**
+     * The retry policy, null if failed requests are not retried.
+     */
+    private final RetryPolicy retryPolicy;
+
+    /**
+     * The circuit breaker of each endpoint family, null if disabled.
+     */
+    private final Map<EndpointFamily, CircuitBreaker> circuitBreakers;
+
+    /**
+     * The hedging policy, null if slow GET requests are not hedged.
+     */
+    private final HedgingPolicy hedgingPolicy;
+
+    /**
+     * The cluster nodes requests are balanced over, null if all go to the base uri.
+     */
+    private final Cluster cluster;
+
+    /**
+     * Routes the session requests of each user to the node hosting the sessions, null if disabled.
+     */
+    private final SessionRouter sessionRouter;
+
+    /**
+     * The client, created lazily and shared by all calls.
+     */
+    private volatile Client client;
+
+    /**
+     * The target of the REST API root on the current client, resolved once and extended per request.
+     */
+    private volatile WebTarget baseTarget;
+
+    /**
+     * The targets of the REST API root of each cluster node on the current client, null without a cluster.
+     */
+    private volatile Map<ClusterNode, WebTarget> nodeTargets;
+
+    /**
+     * The pooled connector of the current client, if any.
+     */
+    private volatile PooledConnectorSupport pool;
+
+    /**
+     * Guards creation and disposal of the client. A lock rather than a monitor, so virtual threads waiting for it do
+     * not pin their carrier thread.
+     */
+    private final ReentrantLock clientLock = new ReentrantLock();
+
+    /**
+     * Whether the server answered a HEAD request with 405 Method Not Allowed, so existence checks use GET.
+     */
+    private volatile boolean headUnsupported;
+
+    /**
+     * Whether this rest client has been closed.
+     */
+    private volatile boolean closed;
+
     /**
      * Gets the.
      *
@@ -173,209 +363,1975 @@ public final class RestClient {
      * @param queryParams the query params
      * @return the t
      */
-    @SuppressWarnings("unchecked")
     public <T> T call(
             String methodName,
             String restPath,
             Class<T> expectedResponse,
             Object payload,
             Map<String, String> queryParams) {
-        WebTarget webTarget = createWebTarget(restPath, queryParams);
-        Response result = webTarget
-                .request()
-                .headers(headers)
-                .accept(mediaType.getMediaType())
-                .method(methodName,
-                        Entity.entity(payload, mediaType.getMediaType()),
-                        Response.class);
-
-        if (expectedResponse.getName().equals(Response.class.getName())) {
-            return (T) result;
-        }
-
-        if (result != null && isStatusCodeOK(result, restPath)) {
-            return (T) result.readEntity(expectedResponse);
-        }
-
-        throw new WebApplicationException("Unhandled response", result);
+        return call(methodName, restPath, expectedResponse, payload, queryParams,
+                !HttpMethod.POST.equals(methodName));
     }
 
     /**
-     * Checks if is status code ok.
+     * Calls, coalescing identical GET requests if enabled.
      *
-     * @param response the response
-     * @param uri the uri
-     * @return true, if is status code ok
+     * @param <T> the generic type
+     * @param methodName the method name
+     * @param restPath the rest path
+     * @param expectedResponse the clazz
+     * @param payload the payload
+     * @param queryParams the query params
+     * @param idempotent whether the request can be repeated safely
+     * @return the t
      */
-    private boolean isStatusCodeOK(Response response, String uri) {
-        if (response.getStatus() == Status.OK.getStatusCode()
-                || response.getStatus() == Status.CREATED.getStatusCode()) {
-            return true;
-        } else if (response.getStatus() == Status.UNAUTHORIZED.getStatusCode()) {
-            throw new NotAuthorizedException("UNAUTHORIZED: Your credentials are wrong. "
-                    + "Please check your username/password or the secret key.", response);
-        } else if (response.getStatus() == Status.CONFLICT.getStatusCode()
-                || response.getStatus() == Status.NOT_FOUND.getStatusCode()
-                || response.getStatus() == Status.FORBIDDEN.getStatusCode()
-                || response.getStatus() == Status.BAD_REQUEST.getStatusCode()) {
-            ErrorResponse errorResponse = response.readEntity(ErrorResponse.class);
-            throw new ClientErrorException(errorResponse.toString(), response);
-        } else {
-            throw new WebApplicationException("Unsupported status", response);
+    private <T> T call(
+            String methodName,
+            String restPath,
+            Class<T> expectedResponse,
+            Object payload,
+            Map<String, String> queryParams,
+            boolean idempotent) {
+        if (isCoalesced(methodName, expectedResponse)) {
+            return singleFlight.execute(requestKey(restPath, expectedResponse, queryParams),
+                    () -> send(methodName, restPath, expectedResponse, null, queryParams, idempotent));
         }
+        return send(methodName, restPath, expectedResponse, payload, queryParams, idempotent);
     }
 
     /**
-     * Creates the web target.
+     * Sends a request and reads its response.
      *
+     * @param <T> the generic type
+     * @param methodName the method name
      * @param restPath the rest path
+     * @param expectedResponse the clazz
+     * @param payload the payload
      * @param queryParams the query params
-     * @return the web target
+     * @param idempotent whether the request can be repeated safely
+     * @return the t
      */
-    private WebTarget createWebTarget(String restPath, Map<String, String> queryParams) {
-        WebTarget webTarget;
-        try {
-            URI u = new URI(this.baseURI + "/plugins/restapi/v1/" + restPath);
-            LOG.debug("Connecting to:" + u);
-            Client client = createRestClient();
-
-            webTarget = client.target(u);
-            if (queryParams != null && !queryParams.isEmpty()) {
-                for (Map.Entry<String, String> entry : queryParams.entrySet()) {
-                    if (entry.getKey() != null && entry.getValue() != null) {
-                        LOG.debug("PARAM: {} = {}", entry.getKey(), entry.getValue());
-                        webTarget = webTarget.queryParam(entry.getKey(), entry.getValue());
-                    }
-                }
-            }
-
-        } catch (Exception e) {
-            throw new IllegalArgumentException("Something went wrong by creating the client: " + e);
+    private <T> T send(
+            String methodName,
+            String restPath,
+            Class<T> expectedResponse,
+            Object payload,
+            Map<String, String> queryParams,
+            boolean idempotent) {
+        Map<Response, ClusterNode> answers = sessionRouter != null ? newAnswers() : null;
+        if (revalidationCache != null && isEntityGet(methodName, expectedResponse)) {
+            Object key = requestKey(restPath, expectedResponse, queryParams);
+            RevalidationCache.Entry validated = revalidationCache.get(key);
+            Function<WebTarget, Invocation.Builder> request = root -> RevalidationCache.validate(validated,
+                    createRequest(root, restPath, queryParams));
+            Response result = isHedged(methodName)
+                    ? await(invokeAsync(restPath, idempotent, true, answers, root -> request.apply(root).rx().get()))
+                    : invoke(restPath, idempotent, answers, root -> request.apply(root).get());
+            return revalidationCache.read(key, validated, result,
+                    response -> readResponse(response, methodName, restPath, expectedResponse, answers));
         }
-
-        return webTarget;
+        Response result = isHedged(methodName)
+                ? await(invokeAsync(restPath, idempotent, true, answers, root -> createRequest(root, restPath,
+                        queryParams)
+                        .rx()
+                        .method(methodName,
+                                Entity.entity(payload, mediaType.getMediaType()))))
+                : invoke(restPath, idempotent, answers, root -> createRequest(root, restPath, queryParams)
+                        .method(methodName,
+                                Entity.entity(payload, mediaType.getMediaType()),
+                                Response.class));
+
+        return readResponse(result, methodName, restPath, expectedResponse, answers);
     }
 
     /**
-     * The Constructor.
+     * Gets asynchronously.
      *
-     * @param builder the builder
+     * @param <T> the generic type
+     * @param restPath the rest path
+     * @param expectedResponse the expected response
+     * @param queryParams the query params
+     * @return the future t
      */
-    private RestClient(RestClientBuilder builder) {
-        this.baseURI = builder.baseURI;
-        this.connectionTimeout = builder.connectionTimeout;
-        this.setHeaders(builder.headers);
-        this.token = builder.token;
-        this.mediaType = builder.mediaType;
+    public <T> CompletableFuture<T> getAsync(
+            String restPath,
+            Class<T> expectedResponse,
+            Map<String, String> queryParams) {
+        return callAsync(HttpMethod.GET,
+                restPath,
+                expectedResponse,
+                null,
+                queryParams);
     }
 
     /**
-     * Creater rest client.
+     * Post asynchronously.
      *
-     * @return the client
-     * @throws KeyManagementException the key management exception
-     * @throws NoSuchAlgorithmException the no such algorithm exception
+     * @param restPath the rest path
+     * @param payload the payload
+     * @param queryParams the query params
+     * @return the future response
      */
-    private Client createRestClient() throws KeyManagementException, NoSuchAlgorithmException {
-        ClientConfig clientConfig = new ClientConfig();
-        // Set connection timeout
-        if (this.connectionTimeout != 0) {
-            clientConfig.property(ClientProperties.CONNECT_TIMEOUT, this.connectionTimeout);
-            clientConfig.property(ClientProperties.READ_TIMEOUT, this.connectionTimeout);
-        }
-
-        clientConfig
-                .register(MoxyJsonFeature.class)
-                .register(MoxyXmlFeature.class)
-                .register(createMoxyJsonResolver());
-
-        Client client = null;
-        if (this.baseURI.startsWith("https")) {
-            client = createSLLClient(clientConfig);
-        } else {
-            client = ClientBuilder.newClient(clientConfig);
-        }
-
-        return client;
+    public CompletableFuture<Response> postAsync(
+            String restPath,
+            Object payload,
+            Map<String, String> queryParams) {
+        LOG.debug("POST: {}", restPath);
+        return callAsync(HttpMethod.POST,
+                restPath,
+                Response.class,
+                payload,
+                queryParams);
     }
 
-    public static ContextResolver<MoxyJsonConfig> createMoxyJsonResolver() {
-        return new MoxyJsonConfig()
-                .setAttributePrefix("")
-                .setValueWrapper("value")
-                .property(JAXBContextProperties.JSON_WRAPPER_AS_ARRAY_NAME, true)
-                .resolver();
+    /**
+     * Put asynchronously.
+     *
+     * @param restPath the rest path
+     * @param payload the payload
+     * @param queryParams the query params
+     * @return the future response
+     */
+    public CompletableFuture<Response> putAsync(
+            String restPath,
+            Object payload,
+            Map<String, String> queryParams) {
+        LOG.debug("PUT: {}", restPath);
+        return callAsync(HttpMethod.PUT,
+                restPath,
+                Response.class,
+                payload,
+                queryParams);
     }
 
     /**
-     * Creates the sll client.
+     * Delete asynchronously.
      *
-     * @param clientConfig the client config
-     * @return the client config
-     * @throws KeyManagementException the key management exception
-     * @throws NoSuchAlgorithmException the no such algorithm exception
+     * @param restPath the rest path
+     * @param queryParams the query params
+     * @return the future response
      */
-    private Client createSLLClient(ClientConfig clientConfig)
-            throws KeyManagementException, NoSuchAlgorithmException {
-        TrustManager[] trustAllCerts = new TrustManager[]{new X509TrustManager() {
-            public X509Certificate[] getAcceptedIssuers() {
-                return null;
-            }
-
-            public void checkClientTrusted(X509Certificate[] certs, String authType) {
-            }
-
-            public void checkServerTrusted(X509Certificate[] certs, String authType) {
-            }
-        }};
-
-        SSLContext sc = SSLContext.getInstance("TLS");
-        sc.init(null, trustAllCerts, new SecureRandom());
-        HttpsURLConnection.setDefaultSSLSocketFactory(sc.getSocketFactory());
-
-        ClientBuilder.newClient(clientConfig);
-
-        Client client = ClientBuilder.newBuilder()
-                .sslContext(sc)
-                .hostnameVerifier(new HostnameVerifier() {
-                    public boolean verify(String s, SSLSession sslSession) {
-                        return true;
-                    }
-                })
-                .withConfig(clientConfig).build();
-
-        return client;
+    public CompletableFuture<Response> deleteAsync(
+            String restPath,
+            Map<String, String> queryParams) {
+        LOG.debug("DELETE: {}", restPath);
+        return callAsync(HttpMethod.DELETE,
+                restPath,
+                Response.class,
+                null,
+                queryParams);
     }
 
     /**
-     * The Class Builder.
+     * Calls asynchronously. The request runs on the executor service of the builder, or on Jersey's default
+     * async executor. The future fails with the same exceptions {@link #call} throws.
+     *
+     * @param <T> the generic type
+     * @param methodName the method name
+     * @param restPath the rest path
+     * @param expectedResponse the clazz
+     * @param payload the payload
+     * @param queryParams the query params
+     * @return the future t
      */
-    public static class RestClientBuilder {
-
-        /**
+    public <T> CompletableFuture<T> callAsync(
+            String methodName,
+            String restPath,
+            Class<T> expectedResponse,
+            Object payload,
+            Map<String, String> queryParams) {
+        return callAsync(methodName, restPath, expectedResponse, payload, queryParams,
+                !HttpMethod.POST.equals(methodName));
+    }
+
+    /**
+     * Calls asynchronously, coalescing identical GET requests if enabled.
+     *
+     * @param <T> the generic type
+     * @param methodName the method name
+     * @param restPath the rest path
+     * @param expectedResponse the clazz
+     * @param payload the payload
+     * @param queryParams the query params
+     * @param idempotent whether the request can be repeated safely
+     * @return the future t
+     */
+    private <T> CompletableFuture<T> callAsync(
+            String methodName,
+            String restPath,
+            Class<T> expectedResponse,
+            Object payload,
+            Map<String, String> queryParams,
+            boolean idempotent) {
+        if (isCoalesced(methodName, expectedResponse)) {
+            return singleFlight.executeAsync(requestKey(restPath, expectedResponse, queryParams),
+                    () -> sendAsync(methodName, restPath, expectedResponse, null, queryParams, idempotent));
+        }
+        return sendAsync(methodName, restPath, expectedResponse, payload, queryParams, idempotent);
+    }
+
+    /**
+     * Sends a request asynchronously and reads its response.
+     *
+     * @param <T> the generic type
+     * @param methodName the method name
+     * @param restPath the rest path
+     * @param expectedResponse the clazz
+     * @param payload the payload
+     * @param queryParams the query params
+     * @param idempotent whether the request can be repeated safely
+     * @return the future t
+     */
+    private <T> CompletableFuture<T> sendAsync(
+            String methodName,
+            String restPath,
+            Class<T> expectedResponse,
+            Object payload,
+            Map<String, String> queryParams,
+            boolean idempotent) {
+        Map<Response, ClusterNode> answers = sessionRouter != null ? newAnswers() : null;
+        if (revalidationCache != null && isEntityGet(methodName, expectedResponse)) {
+            Object key = requestKey(restPath, expectedResponse, queryParams);
+            RevalidationCache.Entry validated = revalidationCache.get(key);
+            return invokeAsync(restPath, idempotent, isHedged(methodName), answers, root -> RevalidationCache
+                    .validate(validated, createRequest(root, restPath, queryParams))
+                    .rx()
+                    .get())
+                    .thenApply(result -> revalidationCache.read(key, validated, result,
+                            response -> readResponse(response, methodName, restPath, expectedResponse, answers)));
+        }
+        return invokeAsync(restPath, idempotent, isHedged(methodName), answers, root -> createRequest(root,
+                restPath, queryParams)
+                .rx()
+                .method(methodName,
+                        Entity.entity(payload, mediaType.getMediaType())))
+                .thenApply(result -> readResponse(result, methodName, restPath, expectedResponse, answers));
+    }
+
+    /**
+     * Sends a request, retrying it as the retry policy allows.
+     *
+     * @param restPath the rest path
+     * @param idempotent whether the request can be repeated safely
+     * @param request sends the request to the REST API root of a node
+     * @return the response
+     */
+    private Response invoke(String restPath, boolean idempotent, Function<WebTarget, Response> request) {
+        return invoke(restPath, idempotent, null, request);
+    }
+
+    /**
+     * Sends a request, retrying it as the retry policy allows, and remembers the node answering each attempt.
+     *
+     * @param restPath the rest path
+     * @param idempotent whether the request can be repeated safely
+     * @param answers collects the node answering each attempt, null if not needed
+     * @param request sends the request to the REST API root of a node
+     * @return the response
+     */
+    private Response invoke(String restPath, boolean idempotent, Map<Response, ClusterNode> answers,
+            Function<WebTarget, Response> request) {
+        Supplier<Response> call = bind(restPath, answers, request);
+        if (retryPolicy == null) {
+            return attempt(restPath, call);
+        }
+        retryPolicy.onRequest();
+        for (int attempts = 1;; attempts++) {
+            Response result = null;
+            RuntimeException failure = null;
+            try {
+                result = attempt(restPath, call);
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+            long delay = retryPolicy.retryDelay(attempts, idempotent, result, failure);
+            if (delay < 0) {
+                if (failure != null) {
+                    throw failure;
+                }
+                return result;
+            }
+            if (result != null) {
+                result.close();
+            }
+            LOG.debug("Retrying {} in {} ms", restPath, TimeUnit.NANOSECONDS.toMillis(delay));
+            pause(delay, "Interrupted while waiting to retry");
+        }
+    }
+
+    /**
+     * Sends a request asynchronously, retrying it as the retry policy allows.
+     *
+     * @param restPath the rest path
+     * @param idempotent whether the request can be repeated safely
+     * @param request starts the request to the REST API root of a node
+     * @return the future response
+     */
+    private CompletableFuture<Response> invokeAsync(String restPath, boolean idempotent,
+            Function<WebTarget, CompletionStage<Response>> request) {
+        return invokeAsync(restPath, idempotent, false, null, request);
+    }
+
+    /**
+     * Sends a request asynchronously, hedging and retrying it as the policies allow.
+     *
+     * @param restPath the rest path
+     * @param idempotent whether the request can be repeated safely
+     * @param hedged whether slow attempts are hedged
+     * @param answers collects the node answering each attempt, null if not needed
+     * @param request starts the request to the REST API root of a node
+     * @return the future response
+     */
+    private CompletableFuture<Response> invokeAsync(String restPath, boolean idempotent, boolean hedged,
+            Map<Response, ClusterNode> answers, Function<WebTarget, CompletionStage<Response>> request) {
+        Supplier<CompletionStage<Response>> call;
+        try {
+            call = bindAsync(restPath, answers, request);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (retryPolicy == null) {
+            return hedged ? hedgeAsync(restPath, call) : attemptAsync(restPath, call);
+        }
+        retryPolicy.onRequest();
+        return retryAsync(restPath, idempotent, hedged, call, 1);
+    }
+
+    /**
+     * Binds a request to the node each of its attempts is sent to. Resolves the client first, so a closed or
+     * misconfigured client fails before any attempt.
+     *
+     * @param restPath the rest path
+     * @param answers collects the node answering each attempt, null if not needed
+     * @param request sends the request to the REST API root of a node
+     * @return sends an attempt
+     */
+    private Supplier<Response> bind(String restPath, Map<Response, ClusterNode> answers,
+            Function<WebTarget, Response> request) {
+        WebTarget root = getRootTarget();
+        if (cluster == null) {
+            return () -> request.apply(root);
+        }
+        Supplier<ClusterNode> nodes = nodeSelector(restPath);
+        return () -> {
+            ClusterNode node = nodes.get();
+            WebTarget target = getNodeTarget(node);
+            Response response = cluster.record(node, () -> request.apply(target));
+            if (answers != null) {
+                answers.put(response, node);
+            }
+            return response;
+        };
+    }
+
+    /**
+     * Binds an asynchronous request to the node each of its attempts is sent to.
+     *
+     * @param restPath the rest path
+     * @param answers collects the node answering each attempt, null if not needed
+     * @param request starts the request to the REST API root of a node
+     * @return starts an attempt
+     * @see #bind(String, Map, Function)
+     */
+    private Supplier<CompletionStage<Response>> bindAsync(String restPath, Map<Response, ClusterNode> answers,
+            Function<WebTarget, CompletionStage<Response>> request) {
+        WebTarget root = getRootTarget();
+        if (cluster == null) {
+            return () -> request.apply(root);
+        }
+        Supplier<ClusterNode> nodes = nodeSelector(restPath);
+        return () -> {
+            ClusterNode node = nodes.get();
+            WebTarget target = getNodeTarget(node);
+            CompletionStage<Response> stage = cluster.recordAsync(node, () -> request.apply(target));
+            return answers != null ? stage.thenApply(response -> {
+                answers.put(response, node);
+                return response;
+            }) : stage;
+        };
+    }
+
+    /**
+     * Creates the map collecting the node answering each attempt of a request, keyed by the identity of the responses
+     * so the node of the response finally used can be found whichever attempt sent it.
+     *
+     * @return the answers
+     */
+    private static Map<Response, ClusterNode> newAnswers() {
+        return Collections.synchronizedMap(new IdentityHashMap<>());
+    }
+
+    /**
+     * Chooses the node of each attempt of a request. The first attempt of a request about the sessions of a user goes
+     * to the node hosting them, if known and not ejected; every other attempt goes where the load balancer sends it.
+     *
+     * @param restPath the rest path
+     * @return chooses the node of the next attempt
+     */
+    private Supplier<ClusterNode> nodeSelector(String restPath) {
+        ClusterNode preferred = sessionRouter != null ? sessionRouter.route(restPath) : null;
+        if (preferred == null) {
+            return cluster::select;
+        }
+        AtomicBoolean first = new AtomicBoolean(true);
+        return () -> first.getAndSet(false) && preferred.isAvailable() ? preferred : cluster.select();
+    }
+
+    /**
+     * Makes an attempt of an asynchronous request and schedules the next one if it fails.
+     *
+     * @param restPath the rest path
+     * @param idempotent whether the request can be repeated safely
+     * @param hedged whether slow attempts are hedged
+     * @param call starts the request
+     * @param attempts the number of the attempt
+     * @return the future response
+     */
+    private CompletableFuture<Response> retryAsync(String restPath, boolean idempotent, boolean hedged,
+            Supplier<CompletionStage<Response>> call, int attempts) {
+        CompletableFuture<Response> attempt = hedged ? hedgeAsync(restPath, call) : attemptAsync(restPath, call);
+        return attempt.handle((result, error) -> {
+            long delay = retryPolicy.retryDelay(attempts, idempotent, result, error);
+            if (delay < 0) {
+                return error != null
+                        ? CompletableFuture.<Response>failedFuture(error)
+                        : CompletableFuture.completedFuture(result);
+            }
+            if (result != null) {
+                result.close();
+            }
+            LOG.debug("Retrying {} in {} ms", restPath, TimeUnit.NANOSECONDS.toMillis(delay));
+            return delay(delay).thenCompose(ignored -> retryAsync(restPath, idempotent, hedged, call, attempts + 1));
+        }).thenCompose(Function.identity());
+    }
+
+    /**
+     * Makes an attempt and, if it has not answered within the delay of the hedging policy for its endpoint, a second
+     * one. The first response below 500 is used; the other one is closed when it arrives, and no hedge is sent once the
+     * first attempt answered. The latency of every attempt answering is recorded, the hedge's included.
+     *
+     * @param restPath the rest path
+     * @param call starts the request
+     * @return the future response
+     */
+    private CompletableFuture<Response> hedgeAsync(String restPath, Supplier<CompletionStage<Response>> call) {
+        Endpoint endpoint = Endpoint.match(HttpMethod.GET, restPath);
+        long delay = hedgingPolicy.onRequest(endpoint);
+        long start = System.nanoTime();
+        CompletableFuture<Response> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        CompletableFuture<Void> timer = delay(delay);
+        attemptAsync(restPath, call).whenComplete((response, error) -> {
+            timer.cancel(false);
+            if (response != null) {
+                hedgingPolicy.record(endpoint, System.nanoTime() - start);
+            }
+            settle(result, pending, response, error);
+        });
+        timer.thenRun(() -> {
+            if (result.isDone() || !hedgingPolicy.tryHedge()) {
+                return;
+            }
+            pending.incrementAndGet();
+            LOG.debug("Hedging {} after {} ms", restPath, TimeUnit.NANOSECONDS.toMillis(delay));
+            long hedged = System.nanoTime();
+            attemptAsync(restPath, call).whenComplete((response, error) -> {
+                if (response != null) {
+                    hedgingPolicy.record(endpoint, System.nanoTime() - hedged);
+                }
+                if (settle(result, pending, response, error) && response != null) {
+                    hedgingPolicy.onHedgeWon();
+                }
+            });
+        });
+        return result;
+    }
+
+    /**
+     * Completes a hedged request with the outcome of one of its attempts, unless a better one may still come.
+     *
+     * @param result the result of the hedged request
+     * @param pending the number of attempts not settled yet
+     * @param response the response, null if the attempt failed
+     * @param error the failure, null if a response was received
+     * @return true, if the outcome was used
+     */
+    private static boolean settle(CompletableFuture<Response> result, AtomicInteger pending, Response response,
+            Throwable error) {
+        boolean last = pending.decrementAndGet() == 0;
+        if (response != null && (response.getStatus() < 500 || last)) {
+            if (result.complete(response)) {
+                return true;
+            }
+            response.close();
+            return false;
+        }
+        if (response != null) {
+            response.close();
+        }
+        return last && result.completeExceptionally(error != null
+                ? error
+                : new ProcessingException("All hedged attempts failed"));
+    }
+
+    /**
+     * Waits for a request sent asynchronously, throwing its failure as a blocking call would.
+     *
+     * @param future the future response
+     * @return the response
+     */
+    private static Response await(CompletableFuture<Response> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Checks if a request is hedged. Only GET requests are, as they can be sent twice without side effects.
+     *
+     * @param methodName the method name
+     * @return true, if hedged
+     */
+    private boolean isHedged(String methodName) {
+        return hedgingPolicy != null && HttpMethod.GET.equals(methodName);
+    }
+
+    /**
+     * Sends a request if the circuit breaker of its family allows it.
+     *
+     * @param restPath the rest path
+     * @param call sends the request
+     * @return the response
+     */
+    private Response attempt(String restPath, Supplier<Response> call) {
+        CircuitBreaker breaker = circuitBreakers != null ? circuitBreakers.get(EndpointFamily.of(restPath)) : null;
+        if (breaker == null) {
+            return limit(restPath, call);
+        }
+        breaker.acquirePermission();
+        AtomicBoolean sent = new AtomicBoolean();
+        try {
+            return limit(restPath, () -> {
+                sent.set(true);
+                return breaker.record(call);
+            });
+        } finally {
+            if (!sent.get()) {
+                breaker.release();
+            }
+        }
+    }
+
+    /**
+     * Starts a request if the circuit breaker of its family allows it.
+     *
+     * @param restPath the rest path
+     * @param call starts the request
+     * @return the future response
+     */
+    private CompletableFuture<Response> attemptAsync(String restPath, Supplier<CompletionStage<Response>> call) {
+        CircuitBreaker breaker = circuitBreakers != null ? circuitBreakers.get(EndpointFamily.of(restPath)) : null;
+        if (breaker == null) {
+            return limitAsync(restPath, call);
+        }
+        try {
+            breaker.acquirePermission();
+        } catch (CircuitBreakerOpenException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        AtomicBoolean sent = new AtomicBoolean();
+        return limitAsync(restPath, () -> {
+            sent.set(true);
+            return breaker.recordAsync(call);
+        }).whenComplete((response, error) -> {
+            if (!sent.get()) {
+                breaker.release();
+            }
+        });
+    }
+
+    /**
+     * Sends a request once the rate limit and the concurrency limit allow it.
+     *
+     * @param restPath the rest path
+     * @param call sends the request
+     * @return the response
+     */
+    private Response limit(String restPath, Supplier<Response> call) {
+        throttle(restPath);
+        if (concurrencyLimiter == null) {
+            return call.get();
+        }
+        CompletableFuture<Void> slot = concurrencyLimiter.acquire();
+        try {
+            slot.get();
+        } catch (InterruptedException e) {
+            if (!slot.cancel(false)) {
+                concurrencyLimiter.abandon();
+            }
+            Thread.currentThread().interrupt();
+            throw new ProcessingException("Interrupted while waiting for the concurrency limit", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+        long start = System.nanoTime();
+        try {
+            Response result = call.get();
+            concurrencyLimiter.release(System.nanoTime() - start, isOverloaded(result.getStatus()));
+            return result;
+        } catch (RuntimeException e) {
+            concurrencyLimiter.release(System.nanoTime() - start, e instanceof ProcessingException);
+            throw e;
+        }
+    }
+
+    /**
+     * Starts a request once the rate limit and the concurrency limit allow it, without blocking the caller.
+     *
+     * @param restPath the rest path
+     * @param call starts the request
+     * @return the future response
+     */
+    private CompletableFuture<Response> limitAsync(String restPath, Supplier<CompletionStage<Response>> call) {
+        return throttleAsync(restPath, () -> {
+            if (concurrencyLimiter == null) {
+                return call.get().toCompletableFuture();
+            }
+            return concurrencyLimiter.acquire().thenCompose(granted -> {
+                long start = System.nanoTime();
+                CompletableFuture<Response> result;
+                try {
+                    result = call.get().toCompletableFuture();
+                } catch (RuntimeException e) {
+                    result = CompletableFuture.failedFuture(e);
+                }
+                return result.whenComplete((response, error) -> concurrencyLimiter.release(
+                        System.nanoTime() - start,
+                        response != null ? isOverloaded(response.getStatus()) : isOverloaded(error)));
+            });
+        });
+    }
+
+    /**
+     * Checks if a status signals an overloaded server.
+     *
+     * @param status the status
+     * @return true, if overloaded
+     */
+    private static boolean isOverloaded(int status) {
+        return status >= 500 || status == Status.TOO_MANY_REQUESTS.getStatusCode();
+    }
+
+    /**
+     * Checks if a failure to get a response signals an overloaded server, such as a timeout.
+     *
+     * @param error the error
+     * @return true, if overloaded
+     */
+    private static boolean isOverloaded(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+        return cause instanceof ProcessingException;
+    }
+
+    /**
+     * Gets the adaptive concurrency limiter, to read its current limit.
+     *
+     * @return the adaptive concurrency limiter, null if disabled
+     */
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * Gets the retry policy, to read how many retries were sent.
+     *
+     * @return the retry policy, null if disabled
+     */
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Gets the cluster nodes requests are balanced over, to read their load and health.
+     *
+     * @return the nodes, empty without a cluster
+     */
+    public List<ClusterNode> getNodes() {
+        return cluster != null ? cluster.getNodes() : Collections.emptyList();
+    }
+
+    /**
+     * Gets the number of session requests sent to the node hosting the sessions of their user.
+     *
+     * @return the routed count, 0 if session routing is disabled
+     */
+    public long getSessionRouteCount() {
+        return sessionRouter != null ? sessionRouter.getRoutedCount() : 0;
+    }
+
+    /**
+     * Gets the hedging policy, to read how many hedges were sent.
+     *
+     * @return the hedging policy, null if disabled
+     */
+    public HedgingPolicy getHedgingPolicy() {
+        return hedgingPolicy;
+    }
+
+    /**
+     * Gets the circuit breaker of an endpoint family, to read its state.
+     *
+     * @param family the endpoint family
+     * @return the circuit breaker, null if disabled
+     */
+    public CircuitBreaker getCircuitBreaker(EndpointFamily family) {
+        return circuitBreakers != null ? circuitBreakers.get(family) : null;
+    }
+
+    /**
+     * Waits until the rate limit of the family of a path allows a request.
+     *
+     * @param restPath the rest path
+     */
+    private void throttle(String restPath) {
+        long wait = reservePermit(restPath);
+        if (wait > 0) {
+            pause(wait, "Interrupted while waiting for the rate limit");
+        }
+    }
+
+    /**
+     * Starts a request once the rate limit of the family of its path allows it, without blocking the caller.
+     *
+     * @param <T> the generic type
+     * @param restPath the rest path
+     * @param request starts the request
+     * @return the future t
+     */
+    private <T> CompletableFuture<T> throttleAsync(String restPath, Supplier<CompletableFuture<T>> request) {
+        long wait = reservePermit(restPath);
+        if (wait <= 0) {
+            return request.get();
+        }
+        return delay(wait).thenCompose(ignored -> request.get());
+    }
+
+    /**
+     * Sleeps, turning an interrupt into a processing exception.
+     *
+     * @param nanos the time to sleep in nanoseconds
+     * @param message the message of the exception
+     */
+    private static void pause(long nanos, String message) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProcessingException(message, e);
+        }
+    }
+
+    /**
+     * Creates a future completing after a delay on the executor service of the builder, or on the common fork join
+     * pool.
+     *
+     * @param nanos the delay in nanoseconds
+     * @return the future
+     */
+    private CompletableFuture<Void> delay(long nanos) {
+        Executor executor = executorService != null ? executorService : ForkJoinPool.commonPool();
+        return CompletableFuture.runAsync(() -> { },
+                CompletableFuture.delayedExecutor(nanos, TimeUnit.NANOSECONDS, executor));
+    }
+
+    /**
+     * Takes a permit from the rate limiter of the family of a path.
+     *
+     * @param restPath the rest path
+     * @return the time to wait for the permit in nanoseconds
+     */
+    private long reservePermit(String restPath) {
+        if (rateLimiters == null) {
+            return 0;
+        }
+        RateLimiter limiter = rateLimiters.get(EndpointFamily.of(restPath));
+        return limiter != null ? limiter.reserve() : 0;
+    }
+
+    /**
+     * Gets the rate limiter applied to an endpoint family, to read how long its callers waited.
+     *
+     * @param family the endpoint family
+     * @return the rate limiter, null if the family is not limited
+     */
+    public RateLimiter getRateLimiter(EndpointFamily family) {
+        return rateLimiters != null ? rateLimiters.get(family) : null;
+    }
+
+    /**
+     * Checks if a call shares the result of an identical one in flight. Only GET requests reading an entity are
+     * coalesced, as a raw response can be read only once.
+     *
+     * @param methodName the method name
+     * @param expectedResponse the expected response
+     * @return true, if coalesced
+     */
+    private boolean isCoalesced(String methodName, Class<?> expectedResponse) {
+        return singleFlight != null && isEntityGet(methodName, expectedResponse);
+    }
+
+    /**
+     * Checks if a call is a GET request reading an entity rather than the raw response.
+     *
+     * @param methodName the method name
+     * @param expectedResponse the expected response
+     * @return true, if entity get
+     */
+    private static boolean isEntityGet(String methodName, Class<?> expectedResponse) {
+        return HttpMethod.GET.equals(methodName) && expectedResponse != Response.class;
+    }
+
+    /**
+     * Creates the key identifying identical GET requests.
+     *
+     * @param restPath the rest path
+     * @param expectedResponse the expected response
+     * @param queryParams the query params
+     * @return the key
+     */
+    private static Object requestKey(String restPath, Class<?> expectedResponse, Map<String, String> queryParams) {
+        Map<String, String> params = queryParams == null || queryParams.isEmpty()
+                ? Collections.emptyMap()
+                : new HashMap<>(queryParams);
+        return Arrays.asList(restPath, expectedResponse, params);
+    }
+
+    /**
+     * Gets the number of GET requests that shared the result of an identical request in flight.
+     *
+     * @return the coalesced get count, 0 if coalescing is disabled
+     */
+    public long getCoalescedGetCount() {
+        return singleFlight != null ? singleFlight.getCoalescedCount() : 0;
+    }
+
+    /**
+     * Gets the number of GET requests answered with 304 Not Modified and served from memory.
+     *
+     * @return the not modified count, 0 if conditional GET requests are disabled
+     */
+    public long getNotModifiedCount() {
+        return revalidationCache != null ? revalidationCache.getNotModifiedCount() : 0;
+    }
+
+    /**
+     * Gets the number of GET responses without validators whose body was unchanged and not decoded again.
+     *
+     * @return the unchanged content count, 0 if conditional GET requests are disabled
+     */
+    public long getUnchangedContentCount() {
+        return revalidationCache != null ? revalidationCache.getUnchangedContentCount() : 0;
+    }
+
+    /**
+     * Gets an endpoint.
+     *
+     * @param <T> the response type of the endpoint
+     * @param endpoint the endpoint
+     * @param pathParams the path params
+     * @return the t
+     */
+    public <T> T get(Endpoint endpoint, String... pathParams) {
+        return call(endpoint, null, null, pathParams);
+    }
+
+    /**
+     * Gets an endpoint with query params.
+     *
+     * @param <T> the response type of the endpoint
+     * @param endpoint the endpoint
+     * @param queryParams the query params
+     * @param pathParams the path params
+     * @return the t
+     */
+    public <T> T get(Endpoint endpoint, Map<String, String> queryParams, String... pathParams) {
+        return call(endpoint, null, queryParams, pathParams);
+    }
+
+    /**
+     * Posts to an endpoint. Endpoints without a body take a null payload.
+     *
+     * @param endpoint the endpoint
+     * @param payload the payload
+     * @param pathParams the path params
+     * @return the response
+     */
+    public Response post(Endpoint endpoint, Object payload, String... pathParams) {
+        return call(endpoint, payload, null, pathParams);
+    }
+
+    /**
+     * Puts to an endpoint.
+     *
+     * @param endpoint the endpoint
+     * @param payload the payload
+     * @param pathParams the path params
+     * @return the response
+     */
+    public Response put(Endpoint endpoint, Object payload, String... pathParams) {
+        return call(endpoint, payload, null, pathParams);
+    }
+
+    /**
+     * Deletes an endpoint.
+     *
+     * @param endpoint the endpoint
+     * @param pathParams the path params
+     * @return the response
+     */
+    public Response delete(Endpoint endpoint, String... pathParams) {
+        return call(endpoint, null, null, pathParams);
+    }
+
+    /**
+     * Calls an endpoint with its HTTP method and response type.
+     *
+     * @param <T> the response type of the endpoint
+     * @param endpoint the endpoint
+     * @param payload the payload
+     * @param queryParams the query params, may be null
+     * @param pathParams the path params
+     * @return the t
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T call(Endpoint endpoint, Object payload, Map<String, String> queryParams, String... pathParams) {
+        String restPath = endpoint.resolve(pathParams);
+        LOG.debug("{}: {}", endpoint.getMethod(), restPath);
+        return call(endpoint.getMethod(), restPath, (Class<T>) endpoint.getResponseType(), payload, queryParams,
+                endpoint.isIdempotent());
+    }
+
+    /**
+     * Gets an endpoint asynchronously.
+     *
+     * @param <T> the response type of the endpoint
+     * @param endpoint the endpoint
+     * @param pathParams the path params
+     * @return the future t
+     */
+    public <T> CompletableFuture<T> getAsync(Endpoint endpoint, String... pathParams) {
+        return callAsync(endpoint, null, null, pathParams);
+    }
+
+    /**
+     * Gets an endpoint with query params asynchronously.
+     *
+     * @param <T> the response type of the endpoint
+     * @param endpoint the endpoint
+     * @param queryParams the query params
+     * @param pathParams the path params
+     * @return the future t
+     */
+    public <T> CompletableFuture<T> getAsync(Endpoint endpoint, Map<String, String> queryParams,
+            String... pathParams) {
+        return callAsync(endpoint, null, queryParams, pathParams);
+    }
+
+    /**
+     * Posts to an endpoint asynchronously. Endpoints without a body take a null payload.
+     *
+     * @param endpoint the endpoint
+     * @param payload the payload
+     * @param pathParams the path params
+     * @return the future response
+     */
+    public CompletableFuture<Response> postAsync(Endpoint endpoint, Object payload, String... pathParams) {
+        return callAsync(endpoint, payload, null, pathParams);
+    }
+
+    /**
+     * Puts to an endpoint asynchronously.
+     *
+     * @param endpoint the endpoint
+     * @param payload the payload
+     * @param pathParams the path params
+     * @return the future response
+     */
+    public CompletableFuture<Response> putAsync(Endpoint endpoint, Object payload, String... pathParams) {
+        return callAsync(endpoint, payload, null, pathParams);
+    }
+
+    /**
+     * Deletes an endpoint asynchronously.
+     *
+     * @param endpoint the endpoint
+     * @param pathParams the path params
+     * @return the future response
+     */
+    public CompletableFuture<Response> deleteAsync(Endpoint endpoint, String... pathParams) {
+        return callAsync(endpoint, null, null, pathParams);
+    }
+
+    /**
+     * Calls an endpoint asynchronously with its HTTP method and response type.
+     *
+     * @param <T> the response type of the endpoint
+     * @param endpoint the endpoint
+     * @param payload the payload
+     * @param queryParams the query params, may be null
+     * @param pathParams the path params
+     * @return the future t
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> callAsync(Endpoint endpoint, Object payload, Map<String, String> queryParams,
+            String... pathParams) {
+        String restPath;
+        try {
+            restPath = endpoint.resolve(pathParams);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        LOG.debug("{}: {}", endpoint.getMethod(), restPath);
+        return callAsync(endpoint.getMethod(), restPath, (Class<T>) endpoint.getResponseType(), payload,
+                queryParams, endpoint.isIdempotent());
+    }
+
+    /**
+     * Checks if the resource of an endpoint exists. Sends a HEAD request, or a GET request if the server does not
+     * allow HEAD, and answers a 404 Not Found with false instead of an exception.
+     *
+     * @param endpoint the endpoint
+     * @param pathParams the path params
+     * @return true, if the resource exists
+     */
+    public boolean exists(Endpoint endpoint, String... pathParams) {
+        String restPath = endpoint.resolve(pathParams);
+        if (!headUnsupported) {
+            Response result = invoke(restPath, true, root -> createRequest(root, restPath, null).head());
+            if (result.getStatus() != Status.METHOD_NOT_ALLOWED.getStatusCode()) {
+                return readExists(result, restPath);
+            }
+            headUnsupported = true;
+            result.close();
+        }
+        return readExists(invoke(restPath, true, root -> createRequest(root, restPath, null).get()), restPath);
+    }
+
+    /**
+     * Checks asynchronously if the resource of an endpoint exists.
+     *
+     * @param endpoint the endpoint
+     * @param pathParams the path params
+     * @return the future result, true if the resource exists
+     * @see #exists(Endpoint, String...)
+     */
+    public CompletableFuture<Boolean> existsAsync(Endpoint endpoint, String... pathParams) {
+        String restPath;
+        try {
+            restPath = endpoint.resolve(pathParams);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        Function<WebTarget, Invocation.Builder> request = root -> createRequest(root, restPath, null);
+        if (headUnsupported) {
+            return invokeAsync(restPath, true, root -> request.apply(root).rx().get())
+                    .thenApply(result -> readExists(result, restPath));
+        }
+        return invokeAsync(restPath, true, root -> request.apply(root).rx().head()).thenCompose(result -> {
+            if (result.getStatus() != Status.METHOD_NOT_ALLOWED.getStatusCode()) {
+                return CompletableFuture.completedFuture(readExists(result, restPath));
+            }
+            headUnsupported = true;
+            result.close();
+            return invokeAsync(restPath, true, root -> request.apply(root).rx().get())
+                    .thenApply(get -> readExists(get, restPath));
+        });
+    }
+
+    /**
+     * Reads the answer to an existence check and closes it.
+     *
+     * @param result the result
+     * @param restPath the rest path
+     * @return true, if the resource exists
+     */
+    private boolean readExists(Response result, String restPath) {
+        try {
+            int status = result.getStatus();
+            if (status == Status.NOT_FOUND.getStatusCode()) {
+                return false;
+            }
+            if (status >= 400 && status < 500 && status != Status.UNAUTHORIZED.getStatusCode()
+                    && !result.hasEntity()) {
+                throw new ClientErrorException(result);
+            }
+            return isStatusCodeOK(result, restPath);
+        } finally {
+            result.close();
+        }
+    }
+
+    /**
+     * Publishes the entities of a list endpoint as they are decoded from the response.
+     *
+     * @param <T> the entity type
+     * @param endpoint the endpoint
+     * @param elementName the XML element name of a single entity
+     * @param entityType the entity type
+     * @param queryParams the query params, may be null
+     * @param pathParams the path params
+     * @return the entity publisher
+     * @see #publish(String, String, Class, Map)
+     */
+    public <T> EntityPublisher<T> publish(
+            Endpoint endpoint,
+            String elementName,
+            Class<T> entityType,
+            Map<String, String> queryParams,
+            String... pathParams) {
+        return publish(endpoint.resolve(pathParams), elementName, entityType, queryParams);
+    }
+
+    /**
+     * Publishes the entities of a list resource as they are decoded from the response. Each subscription sends its
+     * own GET request. Entities are decoded and delivered on the executor service of the builder, or on the common
+     * fork join pool.
+     *
+     * @param <T> the entity type
+     * @param restPath the rest path
+     * @param elementName the XML element name of a single entity
+     * @param entityType the entity type
+     * @param queryParams the query params
+     * @return the entity publisher
+     */
+    public <T> EntityPublisher<T> publish(
+            String restPath,
+            String elementName,
+            Class<T> entityType,
+            Map<String, String> queryParams) {
+        Executor executor = executorService != null ? executorService : ForkJoinPool.commonPool();
+        return new EntityPublisher<>(() -> openEntityIterator(restPath, elementName, entityType, queryParams),
+                executor);
+    }
+
+    /**
+     * Sends a GET request for a list endpoint and iterates over its entities as they are decoded from the response,
+     * so only the current entity is held in memory.
+     *
+     * @param <T> the entity type
+     * @param endpoint the endpoint
+     * @param elementName the XML element name of a single entity
+     * @param entityType the entity type
+     * @param queryParams the query params, may be null
+     * @param pathParams the path params
+     * @return the entity iterator, to be closed by the caller unless read to the end
+     * @see #iterate(String, String, Class, Map)
+     */
+    public <T> EntityIterator<T> iterate(
+            Endpoint endpoint,
+            String elementName,
+            Class<T> entityType,
+            Map<String, String> queryParams,
+            String... pathParams) {
+        return iterate(endpoint.resolve(pathParams), elementName, entityType, queryParams);
+    }
+
+    /**
+     * Sends a GET request for a list resource and iterates over its entities as they are decoded from the response.
+     * The request is sent at once; entities are decoded on the calling thread as the iterator is advanced. Reaching
+     * the end of the list or a decoding failure closes the iterator and its connection.
+     *
+     * @param <T> the entity type
+     * @param restPath the rest path
+     * @param elementName the XML element name of a single entity
+     * @param entityType the entity type
+     * @param queryParams the query params
+     * @return the entity iterator, to be closed by the caller unless read to the end
+     */
+    public <T> EntityIterator<T> iterate(
+            String restPath,
+            String elementName,
+            Class<T> entityType,
+            Map<String, String> queryParams) {
+        return openEntityIterator(restPath, elementName, entityType, queryParams);
+    }
+
+    /**
+     * Sends a GET request for a list endpoint and streams its entities as they are decoded from the response. The
+     * stream is sequential and holds a connection until it is read to the end or closed, so use it in a
+     * try-with-resources statement.
+     *
+     * @param <T> the entity type
+     * @param endpoint the endpoint
+     * @param elementName the XML element name of a single entity
+     * @param entityType the entity type
+     * @param queryParams the query params, may be null
+     * @param pathParams the path params
+     * @return the entity stream
+     * @see #iterate(Endpoint, String, Class, Map, String...)
+     */
+    public <T> Stream<T> stream(
+            Endpoint endpoint,
+            String elementName,
+            Class<T> entityType,
+            Map<String, String> queryParams,
+            String... pathParams) {
+        EntityIterator<T> iterator = iterate(endpoint, elementName, entityType, queryParams, pathParams);
+        return StreamSupport
+                .stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL),
+                        false)
+                .onClose(iterator::close);
+    }
+
+    /**
+     * Sends a GET request for a list endpoint and hands its entities to an action one at a time, as they are decoded
+     * from the response.
+     *
+     * @param <T> the entity type
+     * @param endpoint the endpoint
+     * @param elementName the XML element name of a single entity
+     * @param entityType the entity type
+     * @param queryParams the query params, may be null
+     * @param action the action, called on the calling thread
+     * @param pathParams the path params
+     * @return the number of entities
+     */
+    public <T> long forEach(
+            Endpoint endpoint,
+            String elementName,
+            Class<T> entityType,
+            Map<String, String> queryParams,
+            Consumer<? super T> action,
+            String... pathParams) {
+        long count = 0;
+        try (EntityIterator<T> iterator = iterate(endpoint, elementName, entityType, queryParams, pathParams)) {
+            while (iterator.hasNext()) {
+                action.accept(iterator.next());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Sends a GET request and opens an incremental decoder over the response body.
+     *
+     * @param <T> the entity type
+     * @param restPath the rest path
+     * @param elementName the XML element name of a single entity
+     * @param entityType the entity type
+     * @param queryParams the query params
+     * @return the entity iterator, to be closed by the caller
+     */
+    private <T> EntityIterator<T> openEntityIterator(
+            String restPath,
+            String elementName,
+            Class<T> entityType,
+            Map<String, String> queryParams) {
+        Response result = invoke(restPath, true, root -> createRequest(root, restPath, queryParams).get());
+        try {
+            isStatusCodeOK(result, restPath);
+            return EntityIterator.of(result.readEntity(InputStream.class), mediaType, elementName, entityType);
+        } catch (RuntimeException e) {
+            result.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the response.
+     *
+     * @param <T> the generic type
+     * @param result the result
+     * @param methodName the method name
+     * @param restPath the rest path
+     * @param expectedResponse the expected response
+     * @param answers the node answering each attempt, null if not collected
+     * @return the t
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T readResponse(Response result, String methodName, String restPath, Class<T> expectedResponse,
+            Map<Response, ClusterNode> answers) {
+        if (expectedResponse.getName().equals(Response.class.getName())) {
+            if (sessionRouter != null) {
+                sessionRouter.learn(methodName, restPath, null, null);
+            }
+            if (closeResponses) {
+                return (T) consume(result);
+            }
+            return (T) (leakDetector != null ? leakDetector.track(result, methodName, restPath) : result);
+        }
+
+        if (result != null && isStatusCodeOK(result, restPath)) {
+            if (sessionRouter != null) {
+                ClusterNode answeredBy = answers != null ? answers.get(result) : null;
+                T entity = result.readEntity(expectedResponse);
+                sessionRouter.learn(methodName, restPath, entity, answeredBy);
+                return entity;
+            }
+            return (T) result.readEntity(expectedResponse);
+        }
+
+        throw new WebApplicationException("Unhandled response", result);
+    }
+
+    /**
+     * Reads and discards the entity of a response and closes it, so its connection goes back to the pool right away.
+     * The entity of an unsuccessful response is buffered instead, so the error sent by the server can still be read.
+     *
+     * @param result the result
+     * @return a response with the status and headers of the result but without entity, or the result with its entity
+     *         buffered if it is unsuccessful
+     */
+    private Response consume(Response result) {
+        if (result.getStatusInfo().getFamily() != Status.Family.SUCCESSFUL && result.hasEntity()) {
+            try {
+                result.bufferEntity();
+                return result;
+            } catch (ProcessingException e) {
+                LOG.debug("Failed to buffer the error response", e);
+            }
+        }
+        try {
+            if (result.hasEntity()) {
+                result.readEntity(byte[].class);
+            }
+            return Response.status(result.getStatusInfo()).replaceAll(result.getHeaders()).build();
+        } finally {
+            result.close();
+        }
+    }
+
+    /**
+     * Gets the number of responses reported as not closed in time.
+     *
+     * @return the leaked response count, 0 if leak detection is disabled
+     */
+    public long getLeakedResponseCount() {
+        return leakDetector != null ? leakDetector.getLeakedCount() : 0;
+    }
+
+    /**
+     * Checks if is status code ok.
+     *
+     * @param response the response
+     * @param uri the uri
+     * @return true, if is status code ok
+     */
+    private boolean isStatusCodeOK(Response response, String uri) {
+        if (response.getStatus() == Status.OK.getStatusCode()
+                || response.getStatus() == Status.CREATED.getStatusCode()) {
+            return true;
+        } else if (response.getStatus() == Status.UNAUTHORIZED.getStatusCode()) {
+            throw new NotAuthorizedException("UNAUTHORIZED: Your credentials are wrong. "
+                    + "Please check your username/password or the secret key.", response);
+        } else if (response.getStatus() == Status.CONFLICT.getStatusCode()
+                || response.getStatus() == Status.NOT_FOUND.getStatusCode()
+                || response.getStatus() == Status.FORBIDDEN.getStatusCode()
+                || response.getStatus() == Status.BAD_REQUEST.getStatusCode()) {
+            ErrorResponse errorResponse = response.readEntity(ErrorResponse.class);
+            throw new ClientErrorException(errorResponse.toString(), response);
+        } else {
+            throw new WebApplicationException("Unsupported status", response);
+        }
+    }
+
+    /**
+     * Creates a request to a path below the REST API root of a node.
+     *
+     * @param root the REST API root
+     * @param restPath the rest path
+     * @param queryParams the query params
+     * @return the request
+     */
+    private Invocation.Builder createRequest(WebTarget root, String restPath, Map<String, String> queryParams) {
+        return createWebTarget(root, restPath, queryParams)
+                .request()
+                .headers(headers)
+                .accept(mediaType.getMediaType());
+    }
+
+    /**
+     * Creates the web target.
+     *
+     * @param root the REST API root
+     * @param restPath the rest path
+     * @param queryParams the query params
+     * @return the web target
+     */
+    private WebTarget createWebTarget(WebTarget root, String restPath, Map<String, String> queryParams) {
+        WebTarget webTarget = root.path(restPath);
+        if (queryParams != null && !queryParams.isEmpty()) {
+            for (Map.Entry<String, String> entry : queryParams.entrySet()) {
+                if (entry.getKey() != null && entry.getValue() != null) {
+                    LOG.debug("PARAM: {} = {}", entry.getKey(), entry.getValue());
+                    webTarget = webTarget.queryParam(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Connecting to: {}", webTarget.getUri());
+        }
+        return webTarget;
+    }
+
+    /**
+     * Gets the target of the REST API root, creating the shared client on first use.
+     *
+     * @return the root target
+     */
+    private WebTarget getRootTarget() {
+        try {
+            return getBaseTarget();
+        } catch (IllegalStateException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Something went wrong by creating the client: " + e);
+        }
+    }
+
+    /**
+     * Gets the target of the REST API root of a cluster node on the shared client.
+     *
+     * @param node the node
+     * @return the root target
+     */
+    private WebTarget getNodeTarget(ClusterNode node) {
+        Map<ClusterNode, WebTarget> targets = nodeTargets;
+        if (targets == null) {
+            clientLock.lock();
+            try {
+                getRootTarget();
+                targets = nodeTargets;
+            } finally {
+                clientLock.unlock();
+            }
+        }
+        return targets.get(node);
+    }
+
+    /**
+     * Gets the target of the REST API root, creating the shared client on first use.
+     *
+     * @return the base target
+     * @throws GeneralSecurityException the general security exception
+     */
+    private WebTarget getBaseTarget() throws GeneralSecurityException {
+        WebTarget current = baseTarget;
+        if (current == null) {
+            clientLock.lock();
+            try {
+                if (closed) {
+                    throw new IllegalStateException("RestClient has been closed");
+                }
+                current = baseTarget;
+                if (current == null) {
+                    Client created = createRestClient();
+                    client = created;
+                    current = created.target(baseURI).path(REST_API_PATH);
+                    if (cluster != null) {
+                        Map<ClusterNode, WebTarget> targets = new HashMap<>();
+                        for (ClusterNode node : cluster.getNodes()) {
+                            targets.put(node, created.target(node.getUri()).path(REST_API_PATH));
+                        }
+                        nodeTargets = targets;
+                    }
+                    baseTarget = current;
+                }
+            } finally {
+                clientLock.unlock();
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Discards the shared client so that the next call builds a new one with the current configuration.
+     */
+    private void resetClient() {
+        Client previous;
+        clientLock.lock();
+        try {
+            previous = client;
+            client = null;
+            baseTarget = null;
+            nodeTargets = null;
+            pool = null;
+        } finally {
+            clientLock.unlock();
+        }
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    /**
+     * Gets the statistics of the connection pool.
+     *
+     * @return the connection pool stats, or null if no pooling connector is in use or no request was sent yet
+     */
+    public ConnectionPoolStats getConnectionPoolStats() {
+        PooledConnectorSupport current = pool;
+        return current != null ? current.getStats() : null;
+    }
+
+    /**
+     * Closes the underlying client and releases its connections. Any further call fails.
+     */
+    @Override
+    public void close() {
+        clientLock.lock();
+        try {
+            closed = true;
+        } finally {
+            clientLock.unlock();
+        }
+        resetClient();
+        if (leakDetector != null) {
+            leakDetector.close();
+        }
+        if (cluster != null) {
+            cluster.close();
+        }
+        if (ownsExecutorService) {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * The Constructor.
+     *
+     * @param builder the builder
+     */
+    private RestClient(RestClientBuilder builder) {
+        this.baseURI = builder.baseURI;
+        this.connectionTimeout = builder.connectionTimeout;
+        this.setHeaders(builder.headers);
+        this.token = builder.token;
+        this.mediaType = builder.mediaType;
+        this.connector = builder.connector;
+        this.maxConnections = builder.maxConnections;
+        this.maxConnectionsPerRoute = builder.maxConnectionsPerRoute;
+        this.idleTimeout = builder.idleTimeout;
+        this.validateAfterInactivity = builder.validateAfterInactivity;
+        this.sslContext = builder.sslContext;
+        this.trustStore = builder.trustStore;
+        this.closeResponses = builder.closeResponses;
+        this.singleFlight = builder.coalesceGets ? new SingleFlight() : null;
+        this.revalidationCache = builder.conditionalGets > 0 ? new RevalidationCache(builder.conditionalGets) : null;
+        this.rateLimiters = createRateLimiters(builder);
+        this.retryPolicy = builder.retryPolicy;
+        this.circuitBreakers = createCircuitBreakers(builder.circuitBreakerConfig);
+        this.hedgingPolicy = builder.hedgingPolicy;
+        this.cluster = builder.nodes != null
+                ? new Cluster(builder.nodes, builder.loadBalancer, builder.ejectionFailures, builder.ejectionTime,
+                        builder.maxEjectionTime)
+                : null;
+        this.sessionRouter = cluster != null && builder.sessionNodes != null
+                ? new SessionRouter(cluster, builder.sessionNodes)
+                : null;
+        this.concurrencyLimiter = builder.maxConcurrency > 0
+                ? new AdaptiveConcurrencyLimiter(1, builder.initialConcurrency, builder.maxConcurrency)
+                : null;
+        this.leakDetector = builder.leakDetectionSampleRate > 0
+                ? new ResponseLeakDetector(builder.leakDetectionSampleRate, builder.leakTimeout)
+                : null;
+        if (builder.hostnameVerifier != null) {
+            this.hostnameVerifier = builder.hostnameVerifier;
+        } else if (builder.sslContext == null && builder.trustStore == null) {
+            this.hostnameVerifier = TRUST_ALL_HOSTNAMES;
+        } else {
+            this.hostnameVerifier = null;
+        }
+        if (builder.executorService == null && builder.virtualThreads) {
+            this.executorService = newVirtualThreadPerTaskExecutor();
+            this.ownsExecutorService = this.executorService != null;
+        } else {
+            this.executorService = builder.executorService;
+            this.ownsExecutorService = false;
+        }
+        if (cluster != null && builder.healthCheckInterval > 0) {
+            String healthCheckPath = builder.healthCheckPath;
+            cluster.startHealthChecks(builder.healthCheckInterval, node -> isHealthy(node, healthCheckPath));
+        }
+    }
+
+    /**
+     * Probes a cluster node. A node answering with a status below 500 is healthy, so a plugin without the probed
+     * endpoint still passes while an unreachable or unready node does not.
+     *
+     * @param node the node
+     * @param healthCheckPath the path probed below the REST API root
+     * @return true, if healthy
+     */
+    private boolean isHealthy(ClusterNode node, String healthCheckPath) {
+        Response response = getNodeTarget(node)
+                .path(healthCheckPath)
+                .request()
+                .headers(headers)
+                .get();
+        try {
+            return response.getStatus() < 500;
+        } finally {
+            response.close();
+        }
+    }
+
+    /**
+     * Creates the rate limiter of each endpoint family. Families without their own limit share the default one.
+     *
+     * @param builder the builder
+     * @return the rate limiters by family, null if no rate limit is set
+     */
+    private static Map<EndpointFamily, RateLimiter> createRateLimiters(RestClientBuilder builder) {
+        if (builder.rateLimit == null && builder.familyRateLimits.isEmpty()) {
+            return null;
+        }
+        Map<EndpointFamily, RateLimiter> limiters = new EnumMap<>(EndpointFamily.class);
+        for (EndpointFamily family : EndpointFamily.values()) {
+            RateLimiter limiter = builder.familyRateLimits.getOrDefault(family, builder.rateLimit);
+            if (limiter != null) {
+                limiters.put(family, limiter);
+            }
+        }
+        return limiters;
+    }
+
+    /**
+     * Creates a circuit breaker for each endpoint family.
+     *
+     * @param config the circuit breaker config
+     * @return the circuit breakers by family, null if disabled
+     */
+    private static Map<EndpointFamily, CircuitBreaker> createCircuitBreakers(CircuitBreakerConfig config) {
+        if (config == null) {
+            return null;
+        }
+        Map<EndpointFamily, CircuitBreaker> breakers = new EnumMap<>(EndpointFamily.class);
+        for (EndpointFamily family : EndpointFamily.values()) {
+            breakers.put(family, new CircuitBreaker(family, config));
+        }
+        return breakers;
+    }
+
+    /**
+     * Creates an executor starting a virtual thread per task. Looked up reflectively as virtual threads need Java 21
+     * while the client still runs on Java 17.
+     *
+     * @return the executor service, or null if virtual threads are not available
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            LOG.warn("Virtual threads require Java 21 or later, using the default executor instead");
+            return null;
+        }
+    }
+
+    /**
+     * Checks if any request goes over HTTPS.
+     *
+     * @return true, if the base uri or a cluster node uses HTTPS
+     */
+    private boolean usesHttps() {
+        if (cluster == null) {
+            return this.baseURI.startsWith("https");
+        }
+        for (ClusterNode node : cluster.getNodes()) {
+            if (node.getUri().startsWith("https")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates the rest client.
+     *
+     * @return the client
+     * @throws GeneralSecurityException the general security exception
+     */
+    private Client createRestClient() throws GeneralSecurityException {
+        ClientConfig clientConfig = new ClientConfig();
+        // Set connection timeout
+        if (this.connectionTimeout != 0) {
+            clientConfig.property(ClientProperties.CONNECT_TIMEOUT, this.connectionTimeout);
+            clientConfig.property(ClientProperties.READ_TIMEOUT, this.connectionTimeout);
+        }
+
+        clientConfig
+                .register(MoxyJsonFeature.class)
+                .register(MoxyXmlFeature.class)
+                .register(createMoxyJsonResolver());
+
+        SSLContext sslContext = usesHttps() ? getSSLContext() : null;
+        if (this.connector == SupportedConnector.APACHE_POOLED) {
+            PooledConnectorSupport pooledConnector = new PooledConnectorSupport(this.maxConnections,
+                    this.maxConnectionsPerRoute, this.idleTimeout, this.validateAfterInactivity,
+                    sslContext, this.hostnameVerifier);
+            pooledConnector.configure(clientConfig);
+            this.pool = pooledConnector;
+        } else if (this.connector == SupportedConnector.HTTP2) {
+            Http2ConnectorSupport.configure(clientConfig);
+        }
+
+        ClientBuilder clientBuilder = ClientBuilder.newBuilder().withConfig(clientConfig);
+        if (sslContext != null) {
+            clientBuilder.sslContext(sslContext);
+            if (this.hostnameVerifier != null) {
+                clientBuilder.hostnameVerifier(this.hostnameVerifier);
+            }
+        }
+        if (this.executorService != null) {
+            clientBuilder.executorService(this.executorService);
+        }
+
+        return clientBuilder.build();
+    }
+
+    public static ContextResolver<MoxyJsonConfig> createMoxyJsonResolver() {
+        return new MoxyJsonConfig()
+                .setAttributePrefix("")
+                .setValueWrapper("value")
+                .property(JAXBContextProperties.JSON_WRAPPER_AS_ARRAY_NAME, true)
+                .resolver();
+    }
+
+    /**
+     * Gets the ssl context, creating it on first use. Reusing one context keeps its client session cache, so
+     * connections opened later resume earlier TLS sessions instead of doing a full handshake.
+     *
+     * @return the ssl context
+     * @throws GeneralSecurityException the general security exception
+     */
+    private SSLContext getSSLContext() throws GeneralSecurityException {
+        if (this.sslContext == null) {
+            this.sslContext = createSSLContext();
+        }
+        return this.sslContext;
+    }
+
+    /**
+     * Creates the ssl context, trusting the certificates of the trust store or any certificate without one.
+     *
+     * @return the ssl context
+     * @throws KeyManagementException the key management exception
+     * @throws NoSuchAlgorithmException the no such algorithm exception
+     * @throws KeyStoreException the key store exception
+     */
+    private SSLContext createSSLContext() throws KeyManagementException, NoSuchAlgorithmException, KeyStoreException {
+        TrustManager[] trustManagers;
+        if (this.trustStore != null) {
+            TrustManagerFactory trustManagerFactory =
+                    TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+            trustManagerFactory.init(this.trustStore);
+            trustManagers = trustManagerFactory.getTrustManagers();
+        } else {
+            trustManagers = new TrustManager[]{new X509TrustManager() {
+                public X509Certificate[] getAcceptedIssuers() {
+                    return null;
+                }
+
+                public void checkClientTrusted(X509Certificate[] certs, String authType) {
+                }
+
+                public void checkServerTrusted(X509Certificate[] certs, String authType) {
+                }
+            }};
+        }
+
+        SSLContext sc = SSLContext.getInstance("TLS");
+        sc.init(null, trustManagers, new SecureRandom());
+        return sc;
+    }
+
+    /**
+     * The Class Builder.
+     */
+    public static class RestClientBuilder {
+
+        /**
          * The uri.
          */
-        private String baseURI;
+        private String baseURI;
+
+        /**
+         * The connection timeout.
+         */
+        private int connectionTimeout;
+
+        /**
+         * The headers.
+         */
+        private MultivaluedMap<String, Object> headers;
+
+        /**
+         * The token.
+         */
+        private AuthenticationToken token;
+
+        /**
+         * The media type.
+         */
+        private SupportedMediaType mediaType;
+
+        /**
+         * The connector.
+         */
+        private SupportedConnector connector = SupportedConnector.HTTP_URL_CONNECTION;
+
+        /**
+         * The max connections in total.
+         */
+        private int maxConnections = 20;
+
+        /**
+         * The max connections per route.
+         */
+        private int maxConnectionsPerRoute = 20;
+
+        /**
+         * The idle timeout in milliseconds.
+         */
+        private int idleTimeout = 30000;
+
+        /**
+         * The inactivity in milliseconds after which a connection is validated.
+         */
+        private int validateAfterInactivity = 2000;
+
+        /**
+         * The executor service for asynchronous requests.
+         */
+        private ExecutorService executorService;
+
+        /**
+         * Whether asynchronous requests run on virtual threads.
+         */
+        private boolean virtualThreads;
 
         /**
-         * The connection timeout.
+         * The ssl context.
          */
-        private int connectionTimeout;
+        private SSLContext sslContext;
 
         /**
-         * The headers.
+         * The trust store.
          */
-        private MultivaluedMap<String, Object> headers;
+        private KeyStore trustStore;
 
         /**
-         * The token.
+         * The hostname verifier.
          */
-        private AuthenticationToken token;
+        private HostnameVerifier hostnameVerifier;
 
         /**
-         * The media type.
+         * Whether responses are consumed and closed before they are returned.
          */
-        private SupportedMediaType mediaType;
+        private boolean closeResponses;
+
+        /**
+         * The share of returned responses watched for leaks.
+         */
+        private double leakDetectionSampleRate;
+
+        /**
+         * The time in milliseconds after which a watched response that is still open is reported.
+         */
+        private long leakTimeout = 30000;
+
+        /**
+         * Whether identical GET requests in flight share one network call.
+         */
+        private boolean coalesceGets;
+
+        /**
+         * The number of GET requests remembered for revalidation, 0 to disable conditional GET requests.
+         */
+        private int conditionalGets;
+
+        /**
+         * The rate limit of families without their own, null for none.
+         */
+        private RateLimiter rateLimit;
+
+        /**
+         * The rate limits by family.
+         */
+        private final Map<EndpointFamily, RateLimiter> familyRateLimits = new EnumMap<>(EndpointFamily.class);
+
+        /**
+         * The initial adaptive concurrency limit.
+         */
+        private int initialConcurrency;
+
+        /**
+         * The highest adaptive concurrency limit, 0 to disable the adaptive limit.
+         */
+        private int maxConcurrency;
+
+        /**
+         * The retry policy.
+         */
+        private RetryPolicy retryPolicy;
+
+        /**
+         * The circuit breaker config.
+         */
+        private CircuitBreakerConfig circuitBreakerConfig;
+
+        /**
+         * The hedging policy.
+         */
+        private HedgingPolicy hedgingPolicy;
+
+        /**
+         * The base uris of the cluster nodes, null without a cluster.
+         */
+        private List<String> nodes;
+
+        /**
+         * The load balancer.
+         */
+        private LoadBalancer loadBalancer = LoadBalancer.leastOutstanding();
+
+        /**
+         * The consecutive failures ejecting a node.
+         */
+        private int ejectionFailures = 5;
+
+        /**
+         * The base ejection time in milliseconds.
+         */
+        private long ejectionTime = 30000;
+
+        /**
+         * The longest ejection time in milliseconds.
+         */
+        private long maxEjectionTime = 300000;
+
+        /**
+         * The path probed by health checks, below the REST API root.
+         */
+        private String healthCheckPath;
+
+        /**
+         * The health check interval in milliseconds, 0 to disable active health checks.
+         */
+        private long healthCheckInterval;
+
+        /**
+         * The base uri of each session node name, null if session routing is disabled.
+         */
+        private Map<String, String> sessionNodes;
 
         /**
          * The Constructor.
@@ -439,6 +2395,363 @@ public final class RestClient {
             return this;
         }
 
+        /**
+         * The HTTP connector to send requests with. Defaults to {@link SupportedConnector#HTTP_URL_CONNECTION}.
+         *
+         * @param connector the connector
+         * @return the rest client builder
+         */
+        public RestClientBuilder connector(SupportedConnector connector) {
+            this.connector = connector;
+            return this;
+        }
+
+        /**
+         * Max connections kept by a pooling connector across all routes. Defaults to 20.
+         *
+         * @param maxConnections the max connections
+         * @return the rest client builder
+         */
+        public RestClientBuilder maxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        /**
+         * Max connections kept by a pooling connector per route (scheme, host and port). Defaults to 20.
+         *
+         * @param maxConnectionsPerRoute the max connections per route
+         * @return the rest client builder
+         */
+        public RestClientBuilder maxConnectionsPerRoute(int maxConnectionsPerRoute) {
+            this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+            return this;
+        }
+
+        /**
+         * Time in milliseconds after which idle pooled connections are closed, 0 keeps them open. Defaults to 30000.
+         *
+         * @param idleTimeout the idle timeout
+         * @return the rest client builder
+         */
+        public RestClientBuilder idleTimeout(int idleTimeout) {
+            this.idleTimeout = idleTimeout;
+            return this;
+        }
+
+        /**
+         * Inactivity in milliseconds after which a pooled connection is checked for staleness before it is reused.
+         * Defaults to 2000.
+         *
+         * @param validateAfterInactivity the validate after inactivity
+         * @return the rest client builder
+         */
+        public RestClientBuilder validateAfterInactivity(int validateAfterInactivity) {
+            this.validateAfterInactivity = validateAfterInactivity;
+            return this;
+        }
+
+        /**
+         * Executor service running asynchronous requests. It is not shut down by {@link RestClient#close()}.
+         * Defaults to Jersey's async executor.
+         *
+         * @param executorService the executor service
+         * @return the rest client builder
+         */
+        public RestClientBuilder executorService(ExecutorService executorService) {
+            this.executorService = executorService;
+            return this;
+        }
+
+        /**
+         * Runs asynchronous requests on a new virtual thread each, so thousands of requests can be in flight without
+         * sizing a thread pool. The executor is shut down by {@link RestClient#close()}. Ignored when an
+         * {@link #executorService(ExecutorService)} is set; falls back to Jersey's async executor before Java 21.
+         *
+         * @param virtualThreads whether to use virtual threads
+         * @return the rest client builder
+         */
+        public RestClientBuilder virtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        /**
+         * SSL context for https connections. Without it, or a {@link #trustStore(KeyStore)}, any server certificate
+         * and host name is accepted.
+         *
+         * @param sslContext the ssl context
+         * @return the rest client builder
+         */
+        public RestClientBuilder sslContext(SSLContext sslContext) {
+            this.sslContext = sslContext;
+            return this;
+        }
+
+        /**
+         * Trust store with the certificates accepted for https connections. Ignored when an
+         * {@link #sslContext(SSLContext)} is set.
+         *
+         * @param trustStore the trust store
+         * @return the rest client builder
+         */
+        public RestClientBuilder trustStore(KeyStore trustStore) {
+            this.trustStore = trustStore;
+            return this;
+        }
+
+        /**
+         * Hostname verifier for https connections. Defaults to accepting any host name when neither an ssl context
+         * nor a trust store is set, and to the connector's standard verification otherwise.
+         *
+         * @param hostnameVerifier the hostname verifier
+         * @return the rest client builder
+         */
+        public RestClientBuilder hostnameVerifier(HostnameVerifier hostnameVerifier) {
+            this.hostnameVerifier = hostnameVerifier;
+            return this;
+        }
+
+        /**
+         * Consume and close the responses of calls returning a {@link Response}, such as the post, put and delete
+         * calls. The returned response only carries the status and headers, so callers do not have to close it and
+         * pooled connections are released immediately. The entity of an unsuccessful response is kept in memory so
+         * the error sent by the server can still be read. Disabled by default.
+         *
+         * @param closeResponses whether to close responses
+         * @return the rest client builder
+         */
+        public RestClientBuilder closeResponses(boolean closeResponses) {
+            this.closeResponses = closeResponses;
+            return this;
+        }
+
+        /**
+         * Share of the returned responses watched for leaks, from 0 (disabled, the default) to 1 (all). A watched
+         * response that is neither closed nor read within the {@link #leakTimeout(long)} is logged once as a warning
+         * together with the stack of the call that created it.
+         *
+         * @param leakDetectionSampleRate the leak detection sample rate
+         * @return the rest client builder
+         */
+        public RestClientBuilder leakDetectionSampleRate(double leakDetectionSampleRate) {
+            if (leakDetectionSampleRate < 0 || leakDetectionSampleRate > 1) {
+                throw new IllegalArgumentException("The sample rate must be between 0 and 1");
+            }
+            this.leakDetectionSampleRate = leakDetectionSampleRate;
+            return this;
+        }
+
+        /**
+         * Time in milliseconds after which a response watched by the leak detection is reported. Defaults to 30000.
+         *
+         * @param leakTimeout the leak timeout
+         * @return the rest client builder
+         */
+        public RestClientBuilder leakTimeout(long leakTimeout) {
+            this.leakTimeout = leakTimeout;
+            return this;
+        }
+
+        /**
+         * Let concurrent GET requests for the same path, query params and response type share one network call
+         * instead of sending one each. Callers arriving while a request is in flight get the same result, or the same
+         * exception, so the returned entities must be treated as read-only. Disabled by default.
+         *
+         * @param coalesceGets whether to coalesce GET requests
+         * @return the rest client builder
+         */
+        public RestClientBuilder coalesceGets(boolean coalesceGets) {
+            this.coalesceGets = coalesceGets;
+            return this;
+        }
+
+        /**
+         * Revalidate repeated GET requests instead of downloading and decoding unchanged entities again. The client
+         * remembers the entity and the ETag or Last-Modified header of the last response to up to the given number of
+         * distinct requests, sends them as If-None-Match or If-Modified-Since, and returns the remembered entity when
+         * the server answers 304 Not Modified. Responses without validators are hashed, and an unchanged body is not
+         * decoded again. The returned entities are shared and must be treated as read-only. Disabled (0) by default.
+         *
+         * @param conditionalGets the number of requests remembered
+         * @return the rest client builder
+         */
+        public RestClientBuilder conditionalGets(int conditionalGets) {
+            this.conditionalGets = conditionalGets;
+            return this;
+        }
+
+        /**
+         * Limit the rate of requests with a token bucket holding up to {@code burst} permits and refilling at
+         * {@code permitsPerSecond}. Requests over the rate wait before they are sent: blocking calls sleep, asynchronous
+         * calls are scheduled without blocking the caller. The limit is shared by all endpoint families without a limit
+         * of their own. Disabled by default.
+         *
+         * @param permitsPerSecond the permits per second
+         * @param burst the burst
+         * @return the rest client builder
+         * @see RestClient#getRateLimiter(EndpointFamily)
+         */
+        public RestClientBuilder rateLimit(double permitsPerSecond, int burst) {
+            this.rateLimit = new RateLimiter(permitsPerSecond, burst);
+            return this;
+        }
+
+        /**
+         * Limit the rate of requests to one endpoint family, for instance to cap user provisioning while keeping
+         * session lookups responsive. Requests to the family are then not counted against the limit set by
+         * {@link #rateLimit(double, int)}.
+         *
+         * @param family the endpoint family
+         * @param permitsPerSecond the permits per second
+         * @param burst the burst
+         * @return the rest client builder
+         */
+        public RestClientBuilder rateLimit(EndpointFamily family, double permitsPerSecond, int burst) {
+            this.familyRateLimits.put(family, new RateLimiter(permitsPerSecond, burst));
+            return this;
+        }
+
+        /**
+         * Limit the number of requests in flight to a limit adapting to the server. The limit starts at
+         * {@code initialLimit}, grows by one per limit's worth of responses while latency stays close to the fastest
+         * observed, and is cut by a tenth when latency doubles or requests fail with a 5xx or 429 status or a timeout.
+         * Requests over the limit wait, blocking calls on the calling thread and asynchronous calls without blocking.
+         * Disabled by default.
+         *
+         * @param initialLimit the initial limit
+         * @param maxLimit the highest limit
+         * @return the rest client builder
+         * @see RestClient#getConcurrencyLimiter()
+         */
+        public RestClientBuilder adaptiveConcurrency(int initialLimit, int maxLimit) {
+            if (initialLimit < 1 || maxLimit < initialLimit) {
+                throw new IllegalArgumentException("The limits must satisfy 1 <= initial <= max");
+            }
+            this.initialConcurrency = initialLimit;
+            this.maxConcurrency = maxLimit;
+            return this;
+        }
+
+        /**
+         * Retry failed requests as the policy allows, with exponential backoff and a budget capping the extra load.
+         * Disabled by default.
+         *
+         * @param retryPolicy the retry policy, not to be shared with another client
+         * @return the rest client builder
+         * @see RestClient#getRetryPolicy()
+         */
+        public RestClientBuilder retryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * Give each endpoint family a circuit breaker, so a family whose requests keep failing or stalling fails fast
+         * with a {@link CircuitBreakerOpenException} instead of tying up callers, while the other families are
+         * unaffected. Rejected requests are not retried. Disabled by default.
+         *
+         * @param circuitBreakerConfig the circuit breaker config
+         * @return the rest client builder
+         * @see RestClient#getCircuitBreaker(EndpointFamily)
+         */
+        public RestClientBuilder circuitBreaker(CircuitBreakerConfig circuitBreakerConfig) {
+            this.circuitBreakerConfig = circuitBreakerConfig;
+            return this;
+        }
+
+        /**
+         * Hedge slow GET requests: once a GET has waited longer than a percentile of the observed latencies, send it
+         * again and use whichever response comes first. Each hedge goes through the rate limit, concurrency limit and
+         * circuit breaker like any request. Blocking GET calls then run on the async executor. Disabled by default.
+         *
+         * @param hedgingPolicy the hedging policy, not to be shared with another client
+         * @return the rest client builder
+         * @see RestClient#getHedgingPolicy()
+         */
+        public RestClientBuilder hedgingPolicy(HedgingPolicy hedgingPolicy) {
+            this.hedgingPolicy = hedgingPolicy;
+            return this;
+        }
+
+        /**
+         * Spread requests over the nodes of an Openfire cluster instead of sending them all to the base uri. Each
+         * attempt, retry and hedge chooses its node anew, so a request failing on one node can succeed on another.
+         *
+         * @param baseUris the base uris of the nodes
+         * @return the rest client builder
+         * @see RestClient#getNodes()
+         */
+        public RestClientBuilder nodes(String... baseUris) {
+            if (baseUris.length == 0) {
+                throw new IllegalArgumentException("At least one node is needed");
+            }
+            this.nodes = Arrays.asList(baseUris.clone());
+            this.baseURI = baseUris[0];
+            return this;
+        }
+
+        /**
+         * How requests are spread over the cluster nodes. Defaults to {@link LoadBalancer#leastOutstanding()}.
+         *
+         * @param loadBalancer the load balancer
+         * @return the rest client builder
+         */
+        public RestClientBuilder loadBalancer(LoadBalancer loadBalancer) {
+            this.loadBalancer = Objects.requireNonNull(loadBalancer);
+            return this;
+        }
+
+        /**
+         * Eject a cluster node from the rotation after this many consecutive failures (no response, or a 502, 503 or
+         * 504 status). It is readmitted after the ejection time, doubled up to the maximum every time it fails again
+         * right after. Defaults to 5 failures, 30000 and 300000 milliseconds.
+         *
+         * @param consecutiveFailures the consecutive failures
+         * @param ejectionTime the ejection time in milliseconds
+         * @param maxEjectionTime the longest ejection time in milliseconds
+         * @return the rest client builder
+         */
+        public RestClientBuilder ejection(int consecutiveFailures, long ejectionTime, long maxEjectionTime) {
+            if (consecutiveFailures < 1) {
+                throw new IllegalArgumentException("At least one failure must eject a node");
+            }
+            this.ejectionFailures = consecutiveFailures;
+            this.ejectionTime = ejectionTime;
+            this.maxEjectionTime = maxEjectionTime;
+            return this;
+        }
+
+        /**
+         * Probe every cluster node with a GET of a path below the REST API root, such as {@code system/liveness},
+         * at a fixed interval on a daemon thread. A node that does not answer or answers 5xx is ejected, an ejected
+         * node that answers is readmitted at once. Disabled by default.
+         *
+         * @param path the path
+         * @param interval the interval in milliseconds
+         * @return the rest client builder
+         */
+        public RestClientBuilder healthCheck(String path, long interval) {
+            this.healthCheckPath = Objects.requireNonNull(path);
+            this.healthCheckInterval = interval;
+            return this;
+        }
+
+        /**
+         * Send the session requests of a user ({@code getSessions(username)}, {@code deleteSessions(username)}) to the
+         * cluster node hosting the sessions, learnt from the {@code node} of the sessions returned by earlier
+         * requests. A node of {@code Local} is the node that answered; other node names are looked up in the given
+         * map. Users whose node is unknown or ejected, and retries, go to any node. Needs {@link #nodes(String...)}.
+         *
+         * @param nodeNames the base uri of each node name reported in sessions, may be empty
+         * @return the rest client builder
+         * @see RestClient#getSessionRouteCount()
+         */
+        public RestClientBuilder sessionRouting(Map<String, String> nodeNames) {
+            this.sessionNodes = new HashMap<>(nodeNames);
+            return this;
+        }
+
         /**
          * Builds the.
          *
@@ -465,7 +2778,13 @@ public final class RestClient {
      * @param uri the new uri
      */
     public void setUri(String uri) {
-        this.baseURI = uri;
+        if (cluster != null) {
+            throw new IllegalStateException("The nodes of a cluster cannot be changed");
+        }
+        if (!Objects.equals(this.baseURI, uri)) {
+            this.baseURI = uri;
+            resetClient();
+        }
     }
 
     /**
@@ -501,7 +2820,10 @@ public final class RestClient {
      * @param connectionTimeout the new connection timeout
      */
     public void setConnectionTimeout(int connectionTimeout) {
-        this.connectionTimeout = connectionTimeout;
+        if (this.connectionTimeout != connectionTimeout) {
+            this.connectionTimeout = connectionTimeout;
+            resetClient();
+        }
     }
 
     /**
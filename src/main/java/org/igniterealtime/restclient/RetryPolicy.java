@@ -0,0 +1,342 @@
+package org.igniterealtime.restclient;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Response.Status;
+
+import org.igniterealtime.restclient.exception.CircuitBreakerOpenException;
+
+/**
+ * Decides whether and when a failed request is sent again. Requests that can be repeated safely (GET, PUT, DELETE and
+ * the endpoints marked idempotent) are retried after transport failures and 502, 503 and 504 answers; POST requests
+ * only if enabled. A request that could not even connect, or was answered 429 Too Many Requests, was not processed and
+ * is retried whatever its method. Delays grow exponentially with full jitter, unless the server sent a Retry-After
+ * header on a 429 or 503 answer.
+ * <p>
+ * Retries are paid from a budget: every request adds a fraction of a retry to it, every retry takes a whole one, and at
+ * most a few retries can be saved up. Once the budget is spent failures are returned at once, so retries add at most
+ * that fraction of extra load to a failing server. A policy keeps its budget, so each client needs its own instance.
+ */
+public final class RetryPolicy {
+
+    /**
+     * The number of retries that can be saved up.
+     */
+    private static final double BUDGET_CAP = 10;
+
+    /**
+     * The maximum number of attempts, including the first one.
+     */
+    private final int maxAttempts;
+
+    /**
+     * The delay before the first retry, before jitter, in nanoseconds.
+     */
+    private final long baseDelay;
+
+    /**
+     * The longest delay in nanoseconds.
+     */
+    private final long maxDelay;
+
+    /**
+     * Whether POST requests not marked idempotent are retried.
+     */
+    private final boolean retryPost;
+
+    /**
+     * The share of retries added to the budget by every request.
+     */
+    private final double budgetRatio;
+
+    /**
+     * Guards the budget.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * The retries available.
+     */
+    private double budget = BUDGET_CAP;
+
+    /**
+     * The number of retries sent.
+     */
+    private final LongAdder retries = new LongAdder();
+
+    /**
+     * The number of retries refused because the budget was spent.
+     */
+    private final LongAdder budgetExhausted = new LongAdder();
+
+    /**
+     * The Constructor.
+     *
+     * @param builder the builder
+     */
+    private RetryPolicy(RetryPolicyBuilder builder) {
+        this.maxAttempts = builder.maxAttempts;
+        this.baseDelay = TimeUnit.MILLISECONDS.toNanos(builder.baseDelay);
+        this.maxDelay = TimeUnit.MILLISECONDS.toNanos(builder.maxDelay);
+        this.retryPost = builder.retryPost;
+        this.budgetRatio = builder.budgetRatio;
+    }
+
+    /**
+     * Adds the share of a new request to the budget.
+     */
+    void onRequest() {
+        lock.lock();
+        try {
+            budget = Math.min(BUDGET_CAP, budget + budgetRatio);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Decides whether to retry a request and takes the retry from the budget.
+     *
+     * @param attempts the number of attempts made
+     * @param idempotent whether the request can be repeated safely
+     * @param result the response, null if the request failed
+     * @param error the failure, null if a response was received
+     * @return the delay before the retry in nanoseconds, or -1 not to retry
+     */
+    long retryDelay(int attempts, boolean idempotent, Response result, Throwable error) {
+        if (attempts >= maxAttempts) {
+            return -1;
+        }
+        boolean replayable = idempotent || retryPost;
+        long delay = -1;
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause()
+                    : error;
+            if (cause instanceof CircuitBreakerOpenException
+                    || !(replayable && cause instanceof ProcessingException) && !isConnectFailure(cause)) {
+                return -1;
+            }
+        } else {
+            int status = result.getStatus();
+            if (status != Status.TOO_MANY_REQUESTS.getStatusCode()
+                    && !(replayable && (status == Status.BAD_GATEWAY.getStatusCode()
+                            || status == Status.SERVICE_UNAVAILABLE.getStatusCode()
+                            || status == Status.GATEWAY_TIMEOUT.getStatusCode()))) {
+                return -1;
+            }
+            if (status != Status.BAD_GATEWAY.getStatusCode() && status != Status.GATEWAY_TIMEOUT.getStatusCode()) {
+                delay = retryAfter(result.getHeaderString(HttpHeaders.RETRY_AFTER));
+            }
+        }
+        if (delay < 0) {
+            delay = ThreadLocalRandom.current().nextLong(backoff(attempts) + 1);
+        } else if (delay > maxDelay) {
+            return -1;
+        }
+        lock.lock();
+        try {
+            if (budget < 1) {
+                budgetExhausted.increment();
+                return -1;
+            }
+            budget--;
+        } finally {
+            lock.unlock();
+        }
+        retries.increment();
+        return delay;
+    }
+
+    /**
+     * Gets the upper bound of the delay before a retry.
+     *
+     * @param attempts the number of attempts made
+     * @return the bound in nanoseconds
+     */
+    private long backoff(int attempts) {
+        long bound = baseDelay;
+        for (int i = 1; i < attempts && bound < maxDelay; i++) {
+            bound *= 2;
+        }
+        return Math.min(maxDelay, bound);
+    }
+
+    /**
+     * Reads a Retry-After header, given either in seconds or as an HTTP date.
+     *
+     * @param retryAfter the header value, may be null
+     * @return the delay in nanoseconds, or -1 if absent or invalid
+     */
+    private static long retryAfter(String retryAfter) {
+        if (retryAfter == null || retryAfter.isEmpty()) {
+            return -1;
+        }
+        try {
+            return TimeUnit.SECONDS.toNanos(Math.max(0, Long.parseLong(retryAfter.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime date = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, Duration.between(ZonedDateTime.now(date.getZone()), date).toNanos());
+            } catch (DateTimeParseException | ArithmeticException e2) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Checks if a failure happened before the request reached the server.
+     *
+     * @param error the failure
+     * @return true, if the connection could not be established
+     */
+    private static boolean isConnectFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the number of retries sent.
+     *
+     * @return the retry count
+     */
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    /**
+     * Gets the number of retries refused because the budget was spent.
+     *
+     * @return the budget exhausted count
+     */
+    public long getBudgetExhaustedCount() {
+        return budgetExhausted.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "RetryPolicy [maxAttempts=" + maxAttempts + ", retries=" + getRetryCount() + ", budgetExhausted="
+                + getBudgetExhaustedCount() + "]";
+    }
+
+    /**
+     * The Class RetryPolicyBuilder.
+     */
+    public static class RetryPolicyBuilder {
+
+        /**
+         * The maximum number of attempts.
+         */
+        private int maxAttempts = 3;
+
+        /**
+         * The base delay in milliseconds.
+         */
+        private long baseDelay = 100;
+
+        /**
+         * The max delay in milliseconds.
+         */
+        private long maxDelay = 10000;
+
+        /**
+         * Whether POST requests are retried.
+         */
+        private boolean retryPost;
+
+        /**
+         * The budget ratio.
+         */
+        private double budgetRatio = 0.1;
+
+        /**
+         * Maximum number of attempts of a request, including the first one. Defaults to 3.
+         *
+         * @param maxAttempts the max attempts
+         * @return the retry policy builder
+         */
+        public RetryPolicyBuilder maxAttempts(int maxAttempts) {
+            if (maxAttempts < 1) {
+                throw new IllegalArgumentException("The max attempts must be at least 1");
+            }
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * Upper bound in milliseconds of the random delay before the first retry, doubled for every further one.
+         * Defaults to 100.
+         *
+         * @param baseDelay the base delay
+         * @return the retry policy builder
+         */
+        public RetryPolicyBuilder baseDelay(long baseDelay) {
+            this.baseDelay = baseDelay;
+            return this;
+        }
+
+        /**
+         * Longest delay in milliseconds before a retry. A Retry-After header asking for longer is not waited for, the
+         * answer is returned instead. Defaults to 10000.
+         *
+         * @param maxDelay the max delay
+         * @return the retry policy builder
+         */
+        public RetryPolicyBuilder maxDelay(long maxDelay) {
+            this.maxDelay = maxDelay;
+            return this;
+        }
+
+        /**
+         * Retry POST requests after failures that may have reached the server, at the risk of creating an entity
+         * twice. Disabled by default.
+         *
+         * @param retryPost whether to retry POST requests
+         * @return the retry policy builder
+         */
+        public RetryPolicyBuilder retryPost(boolean retryPost) {
+            this.retryPost = retryPost;
+            return this;
+        }
+
+        /**
+         * Share of retries each request adds to the budget, which caps the extra load retries cause. Defaults to 0.1,
+         * at most 10% more requests.
+         *
+         * @param budgetRatio the budget ratio
+         * @return the retry policy builder
+         */
+        public RetryPolicyBuilder budgetRatio(double budgetRatio) {
+            if (budgetRatio < 0) {
+                throw new IllegalArgumentException("The budget ratio must not be negative");
+            }
+            this.budgetRatio = budgetRatio;
+            return this;
+        }
+
+        /**
+         * Builds the.
+         *
+         * @return the retry policy
+         */
+        public RetryPolicy build() {
+            return new RetryPolicy(this);
+        }
+    }
+}
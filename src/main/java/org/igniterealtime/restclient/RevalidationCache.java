@@ -0,0 +1,225 @@
+package org.igniterealtime.restclient;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import jakarta.ws.rs.client.Invocation;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Response.Status;
+
+/**
+ * Remembers the last entity decoded for a GET request together with the validators the server sent for it. The next
+ * identical request asks the server whether the entity changed, and a 304 Not Modified answer is served from memory.
+ * When the server sends neither an ETag nor a Last-Modified header, the body is hashed instead and an unchanged body is
+ * not decoded again.
+ * <p>
+ * Every answer served from memory returns the same entity instance, so entities are shared between callers and must
+ * be treated as read-only.
+ */
+class RevalidationCache {
+
+    /**
+     * The entries in access order.
+     */
+    private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The maximum number of entries.
+     */
+    private final int maxSize;
+
+    /**
+     * Guards the entries.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * The number of responses answered with 304 Not Modified.
+     */
+    private final LongAdder notModified = new LongAdder();
+
+    /**
+     * The number of responses whose body hashed to the one already decoded.
+     */
+    private final LongAdder unchangedContent = new LongAdder();
+
+    /**
+     * Instantiates a new revalidation cache.
+     *
+     * @param maxSize the maximum number of entries
+     */
+    RevalidationCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Gets the entry cached for a request.
+     *
+     * @param key the request key
+     * @return the entry the request is validated against, null if none
+     */
+    Entry get(Object key) {
+        lock.lock();
+        try {
+            return entries.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds the validators of a cached entry to a request.
+     *
+     * @param entry the entry, may be null
+     * @param request the request
+     * @return the request
+     */
+    static Invocation.Builder validate(Entry entry, Invocation.Builder request) {
+        if (entry != null) {
+            if (entry.etag != null) {
+                request.header(HttpHeaders.IF_NONE_MATCH, entry.etag);
+            }
+            if (entry.lastModified != null) {
+                request.header(HttpHeaders.IF_MODIFIED_SINCE, entry.lastModified);
+            }
+        }
+        return request;
+    }
+
+    /**
+     * Reads a response, serving the cached entity if it did not change.
+     *
+     * @param <T> the entity type
+     * @param key the request key
+     * @param entry the entry the request was validated against, may be null
+     * @param result the response
+     * @param reader reads the entity of a response that changed
+     * @return the entity
+     */
+    @SuppressWarnings("unchecked")
+    <T> T read(Object key, Entry entry, Response result, Function<Response, T> reader) {
+        if (entry != null && result.getStatus() == Status.NOT_MODIFIED.getStatusCode()) {
+            result.close();
+            notModified.increment();
+            touch(key, entry);
+            return (T) entry.entity;
+        }
+        if (result.getStatus() != Status.OK.getStatusCode()) {
+            return reader.apply(result);
+        }
+        String etag = result.getHeaderString(HttpHeaders.ETAG);
+        String lastModified = result.getHeaderString(HttpHeaders.LAST_MODIFIED);
+        byte[] hash = null;
+        if (etag == null && lastModified == null) {
+            result.bufferEntity();
+            hash = hash(result.readEntity(byte[].class));
+            if (entry != null && entry.hash != null && MessageDigest.isEqual(entry.hash, hash)) {
+                result.close();
+                unchangedContent.increment();
+                touch(key, entry);
+                return (T) entry.entity;
+            }
+        }
+        T entity = reader.apply(result);
+        if (entity != null) {
+            touch(key, new Entry(etag, lastModified, hash, entity));
+        }
+        return entity;
+    }
+
+    /**
+     * Stores an entry, dropping the least recently used one if the cache is full.
+     *
+     * @param key the request key
+     * @param entry the entry
+     */
+    private void touch(Object key, Entry entry) {
+        lock.lock();
+        try {
+            entries.put(key, entry);
+            if (entries.size() > maxSize) {
+                entries.remove(entries.keySet().iterator().next());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hashes a body.
+     *
+     * @param body the body
+     * @return the hash
+     */
+    private static byte[] hash(byte[] body) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(body);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Gets the number of responses answered with 304 Not Modified.
+     *
+     * @return the not modified count
+     */
+    long getNotModifiedCount() {
+        return notModified.sum();
+    }
+
+    /**
+     * Gets the number of responses whose body hashed to the one already decoded.
+     *
+     * @return the unchanged content count
+     */
+    long getUnchangedContentCount() {
+        return unchangedContent.sum();
+    }
+
+    /**
+     * The validators and entity of the last response to a request.
+     */
+    static final class Entry {
+
+        /**
+         * The entity tag, null if none was sent.
+         */
+        private final String etag;
+
+        /**
+         * The last modified date as sent by the server, null if none was sent.
+         */
+        private final String lastModified;
+
+        /**
+         * The hash of the body, used when the server sent no validator.
+         */
+        private final byte[] hash;
+
+        /**
+         * The decoded entity.
+         */
+        private final Object entity;
+
+        /**
+         * Instantiates a new entry.
+         *
+         * @param etag the etag
+         * @param lastModified the last modified date
+         * @param hash the hash
+         * @param entity the entity
+         */
+        Entry(String etag, String lastModified, byte[] hash, Object entity) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.hash = hash;
+            this.entity = entity;
+        }
+    }
+}
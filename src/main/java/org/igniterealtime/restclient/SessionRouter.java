@@ -0,0 +1,188 @@
+package org.igniterealtime.restclient;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import jakarta.ws.rs.HttpMethod;
+
+import org.igniterealtime.restclient.entity.SessionEntities;
+import org.igniterealtime.restclient.entity.SessionEntity;
+
+/**
+ * Learns which cluster node hosts the sessions of each user from the {@code node} of the sessions the server returns,
+ * so the session requests of a user go straight to that node instead of being forwarded by another one. A node of
+ * {@code Local} is the node that answered; other names are looked up in the names given to the builder. The most
+ * recently seen users are remembered, up to a maximum.
+ */
+class SessionRouter {
+
+    /**
+     * The path of the sessions of a user, followed by the username.
+     */
+    private static final String USER_SESSIONS_PATH = "sessions/";
+
+    /**
+     * The node name of a session hosted on the answering node.
+     */
+    private static final String LOCAL = "Local";
+
+    /**
+     * The maximum number of users.
+     */
+    private static final int MAX_USERS = 100000;
+
+    /**
+     * The nodes by session node name.
+     */
+    private final Map<String, ClusterNode> namedNodes = new HashMap<>();
+
+    /**
+     * The nodes by base uri.
+     */
+    private final Map<String, ClusterNode> nodes = new HashMap<>();
+
+    /**
+     * The node of each user, in access order.
+     */
+    private final LinkedHashMap<String, ClusterNode> users = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Guards the users.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * The number of requests routed to the node of their user.
+     */
+    private final LongAdder routed = new LongAdder();
+
+    /**
+     * Instantiates a new session router.
+     *
+     * @param cluster the cluster
+     * @param nodeNames the base uri of each session node name
+     */
+    SessionRouter(Cluster cluster, Map<String, String> nodeNames) {
+        for (ClusterNode node : cluster.getNodes()) {
+            nodes.put(node.getUri(), node);
+        }
+        for (Map.Entry<String, String> entry : nodeNames.entrySet()) {
+            ClusterNode node = nodes.get(entry.getValue());
+            if (node == null) {
+                throw new IllegalArgumentException("Session node " + entry.getKey() + " maps to "
+                        + entry.getValue() + ", which is not a cluster node");
+            }
+            namedNodes.put(entry.getKey(), node);
+        }
+    }
+
+    /**
+     * Gets the node hosting the sessions a request is about.
+     *
+     * @param restPath the rest path
+     * @return the node, null if the request is not about the sessions of a known user
+     */
+    ClusterNode route(String restPath) {
+        String username = username(restPath);
+        if (username == null) {
+            return null;
+        }
+        ClusterNode node;
+        lock.lock();
+        try {
+            node = users.get(username);
+        } finally {
+            lock.unlock();
+        }
+        if (node != null) {
+            routed.increment();
+        }
+        return node;
+    }
+
+    /**
+     * Learns from the answer to a session request.
+     *
+     * @param methodName the method name
+     * @param restPath the rest path
+     * @param entity the entity read from the answer
+     * @param answeredBy the node that answered, null if unknown
+     */
+    void learn(String methodName, String restPath, Object entity, ClusterNode answeredBy) {
+        String username = username(restPath);
+        if (username != null && !HttpMethod.GET.equals(methodName)) {
+            forget(username);
+            return;
+        }
+        if (!(entity instanceof SessionEntities)) {
+            return;
+        }
+        Map<String, ClusterNode> learned = new LinkedHashMap<>();
+        if (((SessionEntities) entity).getSessions() != null) {
+            for (SessionEntity session : ((SessionEntities) entity).getSessions()) {
+                ClusterNode node = LOCAL.equalsIgnoreCase(session.getNode())
+                        ? answeredBy
+                        : namedNodes.get(session.getNode());
+                if (node != null && session.getUsername() != null) {
+                    learned.putIfAbsent(session.getUsername().toLowerCase(Locale.ROOT), node);
+                }
+            }
+        }
+        lock.lock();
+        try {
+            if (username != null && !learned.containsKey(username)) {
+                users.remove(username);
+            }
+            users.putAll(learned);
+            Iterator<String> eldest = users.keySet().iterator();
+            while (users.size() > MAX_USERS) {
+                eldest.next();
+                eldest.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forgets the node of a user whose sessions were closed.
+     *
+     * @param username the username
+     */
+    private void forget(String username) {
+        lock.lock();
+        try {
+            users.remove(username);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the user of a request about the sessions of a single user.
+     *
+     * @param restPath the rest path
+     * @return the lower case username, null if the request is about something else
+     */
+    private static String username(String restPath) {
+        if (!restPath.startsWith(USER_SESSIONS_PATH) || restPath.length() == USER_SESSIONS_PATH.length()
+                || restPath.indexOf('/', USER_SESSIONS_PATH.length()) >= 0) {
+            return null;
+        }
+        return restPath.substring(USER_SESSIONS_PATH.length()).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Gets the number of requests routed to the node of their user.
+     *
+     * @return the routed count
+     */
+    long getRoutedCount() {
+        return routed.sum();
+    }
+}
@@ -0,0 +1,103 @@
+package org.igniterealtime.restclient;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls with the same key into one. The first caller runs the call, callers arriving while it is
+ * in flight wait for and share its result or failure. Nothing is kept once the call completes.
+ */
+class SingleFlight {
+
+    /**
+     * The calls in flight by key.
+     */
+    private final ConcurrentHashMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * The number of calls that shared the result of another one.
+     */
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Runs the call unless one with the same key is in flight, then waits for that one.
+     *
+     * @param <T> the result type
+     * @param key the key
+     * @param call the call
+     * @return the result
+     */
+    @SuppressWarnings("unchecked")
+    <T> T execute(Object key, Supplier<T> call) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.increment();
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+        try {
+            T result = call.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Starts the call unless one with the same key is in flight, then shares that one. Every caller gets its own
+     * future, so completing or cancelling it does not affect the others.
+     *
+     * @param <T> the result type
+     * @param key the key
+     * @param call the call
+     * @return the future result
+     */
+    @SuppressWarnings("unchecked")
+    <T> CompletableFuture<T> executeAsync(Object key, Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.increment();
+            return (CompletableFuture<T>) existing.copy();
+        }
+        CompletableFuture<T> result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((value, error) -> {
+            inFlight.remove(key, flight);
+            if (error != null) {
+                flight.completeExceptionally(error);
+            } else {
+                flight.complete(value);
+            }
+        });
+        return (CompletableFuture<T>) flight.copy();
+    }
+
+    /**
+     * Gets the number of calls that shared the result of another one.
+     *
+     * @return the coalesced count
+     */
+    long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+}
@@ -0,0 +1,174 @@
+package org.igniterealtime.restclient.bulk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Response.Status;
+
+import org.igniterealtime.restclient.LatencyHistogram;
+import org.igniterealtime.restclient.exception.ErrorResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends one asynchronous request per item with a bounded number of requests in flight. Items are taken from the input
+ * only when a request slot is free, so the input can be a lazily produced sequence of any length.
+ */
+public final class BulkExecutor {
+
+    /**
+     * The Constant LOG.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(BulkExecutor.class);
+
+    /**
+     * The options.
+     */
+    private final BulkOptions options;
+
+    /**
+     * Instantiates a new bulk executor.
+     *
+     * @param options the options
+     */
+    public BulkExecutor(BulkOptions options) {
+        this.options = options;
+    }
+
+    /**
+     * Sends a request for every item and waits for all of them. An interrupt, or a failure of the items' iterator,
+     * stops taking new items; the requests in flight are still awaited and the result covers the items sent, with the
+     * failure of the iterator in {@link BulkResult#getFailure()}.
+     *
+     * @param <T> the item type
+     * @param items the items
+     * @param request sends the request for an item
+     * @return the bulk result
+     */
+    public <T> BulkResult<T> run(Iterable<T> items, Function<? super T, CompletableFuture<Response>> request) {
+        int concurrency = options.getConcurrency();
+        Semaphore permits = new Semaphore(concurrency);
+        Queue<BulkItemResult<T>> results = options.isCollectResults() ? new ConcurrentLinkedQueue<>() : null;
+        Consumer<? super BulkItemResult<?>> listener = options.getListener();
+        LongAdder created = new LongAdder();
+        LongAdder conflicts = new LongAdder();
+        LongAdder errors = new LongAdder();
+        LatencyHistogram latencies = new LatencyHistogram();
+
+        long start = System.nanoTime();
+        RuntimeException failure = null;
+        try {
+            for (T item : items) {
+                permits.acquire();
+                long sent = System.nanoTime();
+                CompletableFuture<Response> future;
+                try {
+                    future = request.apply(item);
+                } catch (RuntimeException e) {
+                    future = CompletableFuture.failedFuture(e);
+                }
+                future.whenComplete((response, error) -> {
+                    try {
+                        long latency = System.nanoTime() - sent;
+                        BulkItemResult<T> result = toResult(item, response, error, latency);
+                        latencies.record(latency);
+                        switch (result.getOutcome()) {
+                            case CREATED:
+                                created.increment();
+                                break;
+                            case CONFLICT:
+                                conflicts.increment();
+                                break;
+                            default:
+                                errors.increment();
+                                break;
+                        }
+                        if (results != null) {
+                            results.add(result);
+                        }
+                        if (listener != null) {
+                            listener.accept(result);
+                        }
+                    } catch (RuntimeException e) {
+                        LOG.warn("Failed to handle the result of a bulk item", e);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            LOG.warn("Failed to read the next bulk item, waiting for the requests in flight", e);
+            failure = e;
+        } finally {
+            permits.acquireUninterruptibly(concurrency);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        List<BulkItemResult<T>> collected = results != null
+                ? new ArrayList<>(results)
+                : Collections.emptyList();
+        return new BulkResult<>(collected,
+                new BulkStats(created.sum(), conflicts.sum(), errors.sum(), elapsed, latencies), failure);
+    }
+
+    /**
+     * Turns the response to an item into its result and closes the response. Lets callers sending a single request
+     * themselves report it the same way as a bulk run.
+     *
+     * @param <T> the item type
+     * @param item the item
+     * @param response the response, null if the request failed
+     * @param error the failure, null if a response was received
+     * @param latency the latency
+     * @return the bulk item result
+     */
+    public static <T> BulkItemResult<T> toResult(T item, Response response, Throwable error, long latency) {
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause()
+                    : error;
+            int status = cause instanceof WebApplicationException
+                    ? ((WebApplicationException) cause).getResponse().getStatus()
+                    : 0;
+            return new BulkItemResult<>(item, BulkOutcome.ERROR, status, null, cause, latency);
+        }
+        try {
+            int status = response.getStatus();
+            if (response.getStatusInfo().getFamily() == Status.Family.SUCCESSFUL) {
+                return new BulkItemResult<>(item, BulkOutcome.CREATED, status, null, null, latency);
+            }
+            BulkOutcome outcome = status == Status.CONFLICT.getStatusCode() ? BulkOutcome.CONFLICT : BulkOutcome.ERROR;
+            return new BulkItemResult<>(item, outcome, status, readError(response), null, latency);
+        } finally {
+            response.close();
+        }
+    }
+
+    /**
+     * Reads the error sent by the server.
+     *
+     * @param response the response
+     * @return the error response, null if there is none or it cannot be read
+     */
+    private static ErrorResponse readError(Response response) {
+        try {
+            return response.hasEntity() ? response.readEntity(ErrorResponse.class) : null;
+        } catch (RuntimeException e) {
+            LOG.debug("Failed to read the error response", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package org.igniterealtime.restclient.bulk;
+
+import org.igniterealtime.restclient.exception.ErrorResponse;
+
+/**
+ * The Class BulkItemResult.
+ *
+ * @param <T> the item type
+ */
+public final class BulkItemResult<T> {
+
+    /**
+     * The item.
+     */
+    private final T item;
+
+    /**
+     * The outcome.
+     */
+    private final BulkOutcome outcome;
+
+    /**
+     * The HTTP status, 0 if no response was received.
+     */
+    private final int status;
+
+    /**
+     * The error sent by the server, if any.
+     */
+    private final ErrorResponse errorResponse;
+
+    /**
+     * The exception that prevented a response, if any.
+     */
+    private final Throwable exception;
+
+    /**
+     * The latency in nanoseconds.
+     */
+    private final long latency;
+
+    /**
+     * Instantiates a new bulk item result.
+     *
+     * @param item the item
+     * @param outcome the outcome
+     * @param status the status
+     * @param errorResponse the error response
+     * @param exception the exception
+     * @param latency the latency in nanoseconds
+     */
+    public BulkItemResult(T item, BulkOutcome outcome, int status, ErrorResponse errorResponse, Throwable exception,
+            long latency) {
+        this.item = item;
+        this.outcome = outcome;
+        this.status = status;
+        this.errorResponse = errorResponse;
+        this.exception = exception;
+        this.latency = latency;
+    }
+
+    /**
+     * Gets the item.
+     *
+     * @return the item
+     */
+    public T getItem() {
+        return item;
+    }
+
+    /**
+     * Gets the outcome.
+     *
+     * @return the outcome
+     */
+    public BulkOutcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Gets the HTTP status.
+     *
+     * @return the status, 0 if no response was received
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the error sent by the server with a conflict or error status. It is read before the response is closed, so
+     * it is available whether or not the client closes responses itself.
+     *
+     * @return the error response, null if none was sent or it could not be read
+     */
+    public ErrorResponse getErrorResponse() {
+        return errorResponse;
+    }
+
+    /**
+     * Gets the exception that prevented a response.
+     *
+     * @return the exception, null if a response was received
+     */
+    public Throwable getException() {
+        return exception;
+    }
+
+    /**
+     * Gets the time from sending the request to receiving the response.
+     *
+     * @return the latency in nanoseconds
+     */
+    public long getLatency() {
+        return latency;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkItemResult [item=" + item + ", outcome=" + outcome + ", status=" + status + ", errorResponse="
+                + errorResponse + ", exception=" + exception + "]";
+    }
+}
@@ -0,0 +1,139 @@
+package org.igniterealtime.restclient.bulk;
+
+import java.util.function.Consumer;
+
+/**
+ * The Class BulkOptions.
+ */
+public final class BulkOptions {
+
+    /**
+     * The maximum number of requests in flight.
+     */
+    private final int concurrency;
+
+    /**
+     * Whether item results are kept for the bulk result.
+     */
+    private final boolean collectResults;
+
+    /**
+     * Notified of every item result as it completes, may be null.
+     */
+    private final Consumer<? super BulkItemResult<?>> listener;
+
+    /**
+     * The Constructor.
+     *
+     * @param builder the builder
+     */
+    private BulkOptions(BulkOptionsBuilder builder) {
+        this.concurrency = builder.concurrency;
+        this.collectResults = builder.collectResults;
+        this.listener = builder.listener;
+    }
+
+    /**
+     * Gets the default options.
+     *
+     * @return the bulk options
+     */
+    public static BulkOptions defaults() {
+        return new BulkOptionsBuilder().build();
+    }
+
+    /**
+     * Gets the maximum number of requests in flight.
+     *
+     * @return the concurrency
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Checks if item results are kept for the bulk result.
+     *
+     * @return true, if results are collected
+     */
+    public boolean isCollectResults() {
+        return collectResults;
+    }
+
+    /**
+     * Gets the listener notified of every item result.
+     *
+     * @return the listener, null if none
+     */
+    public Consumer<? super BulkItemResult<?>> getListener() {
+        return listener;
+    }
+
+    /**
+     * The Class BulkOptionsBuilder.
+     */
+    public static class BulkOptionsBuilder {
+
+        /**
+         * The concurrency.
+         */
+        private int concurrency = 16;
+
+        /**
+         * Whether results are collected.
+         */
+        private boolean collectResults = true;
+
+        /**
+         * The listener.
+         */
+        private Consumer<? super BulkItemResult<?>> listener;
+
+        /**
+         * Maximum number of requests in flight. The input is read only as fast as requests complete, so no more than
+         * this many items are held at a time. Defaults to 16.
+         *
+         * @param concurrency the concurrency
+         * @return the bulk options builder
+         */
+        public BulkOptionsBuilder concurrency(int concurrency) {
+            if (concurrency < 1) {
+                throw new IllegalArgumentException("The concurrency must be at least 1");
+            }
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        /**
+         * Keep every item result in the bulk result. Defaults to true; turn it off for very large inputs and use a
+         * {@link #listener(Consumer)} instead.
+         *
+         * @param collectResults whether to collect results
+         * @return the bulk options builder
+         */
+        public BulkOptionsBuilder collectResults(boolean collectResults) {
+            this.collectResults = collectResults;
+            return this;
+        }
+
+        /**
+         * Listener notified of every item result as it completes, on the thread completing the request.
+         *
+         * @param listener the listener
+         * @return the bulk options builder
+         */
+        public BulkOptionsBuilder listener(Consumer<? super BulkItemResult<?>> listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        /**
+         * Builds the.
+         *
+         * @return the bulk options
+         */
+        public BulkOptions build() {
+            return new BulkOptions(this);
+        }
+    }
+}
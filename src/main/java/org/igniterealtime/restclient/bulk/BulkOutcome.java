@@ -0,0 +1,23 @@
+package org.igniterealtime.restclient.bulk;
+
+/**
+ * The outcome of one item of a bulk operation.
+ */
+public enum BulkOutcome {
+
+    /**
+     * The request succeeded; for a creation, the entity was created.
+     */
+    CREATED,
+
+    /**
+     * The entity already existed.
+     */
+    CONFLICT,
+
+    /**
+     * The request failed for another reason.
+     */
+    ERROR
+
+}
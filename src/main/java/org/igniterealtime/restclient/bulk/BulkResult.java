@@ -0,0 +1,81 @@
+package org.igniterealtime.restclient.bulk;
+
+import java.util.List;
+
+/**
+ * The Class BulkResult.
+ *
+ * @param <T> the item type
+ */
+public final class BulkResult<T> {
+
+    /**
+     * The item results in completion order.
+     */
+    private final List<BulkItemResult<T>> results;
+
+    /**
+     * The stats.
+     */
+    private final BulkStats stats;
+
+    /**
+     * The failure that stopped reading the items.
+     */
+    private final RuntimeException failure;
+
+    /**
+     * Instantiates a new bulk result.
+     *
+     * @param results the item results
+     * @param stats the stats
+     */
+    public BulkResult(List<BulkItemResult<T>> results, BulkStats stats) {
+        this(results, stats, null);
+    }
+
+    /**
+     * Instantiates a new bulk result.
+     *
+     * @param results the item results
+     * @param stats the stats
+     * @param failure the failure that stopped reading the items, null if all of them were read
+     */
+    public BulkResult(List<BulkItemResult<T>> results, BulkStats stats, RuntimeException failure) {
+        this.results = results;
+        this.stats = stats;
+        this.failure = failure;
+    }
+
+    /**
+     * Gets the item results in completion order.
+     *
+     * @return the item results, empty if they were not collected
+     */
+    public List<BulkItemResult<T>> getResults() {
+        return results;
+    }
+
+    /**
+     * Gets the stats.
+     *
+     * @return the stats
+     */
+    public BulkStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Gets the failure that stopped reading the items. The results and stats then cover the items read before it.
+     *
+     * @return the failure, null if all items were read
+     */
+    public RuntimeException getFailure() {
+        return failure;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkResult [stats=" + stats + (failure != null ? ", failure=" + failure : "") + "]";
+    }
+}
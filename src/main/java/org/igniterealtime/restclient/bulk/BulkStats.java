@@ -0,0 +1,123 @@
+package org.igniterealtime.restclient.bulk;
+
+import java.util.concurrent.TimeUnit;
+
+import org.igniterealtime.restclient.LatencyHistogram;
+
+/**
+ * The Class BulkStats.
+ */
+public final class BulkStats {
+
+    /**
+     * The number of items created.
+     */
+    private final long created;
+
+    /**
+     * The number of items that already existed.
+     */
+    private final long conflicts;
+
+    /**
+     * The number of items that failed.
+     */
+    private final long errors;
+
+    /**
+     * The wall clock time of the whole operation in nanoseconds.
+     */
+    private final long elapsed;
+
+    /**
+     * The latencies of the single requests.
+     */
+    private final LatencyHistogram latencies;
+
+    /**
+     * Instantiates new bulk stats.
+     *
+     * @param created the created items
+     * @param conflicts the conflicting items
+     * @param errors the failed items
+     * @param elapsed the elapsed time in nanoseconds
+     * @param latencies the latencies
+     */
+    public BulkStats(long created, long conflicts, long errors, long elapsed, LatencyHistogram latencies) {
+        this.created = created;
+        this.conflicts = conflicts;
+        this.errors = errors;
+        this.elapsed = elapsed;
+        this.latencies = latencies;
+    }
+
+    /**
+     * Gets the number of items processed.
+     *
+     * @return the total
+     */
+    public long getTotal() {
+        return created + conflicts + errors;
+    }
+
+    /**
+     * Gets the number of items created.
+     *
+     * @return the created items
+     */
+    public long getCreated() {
+        return created;
+    }
+
+    /**
+     * Gets the number of items that already existed.
+     *
+     * @return the conflicting items
+     */
+    public long getConflicts() {
+        return conflicts;
+    }
+
+    /**
+     * Gets the number of items that failed.
+     *
+     * @return the failed items
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * Gets the wall clock time of the whole operation.
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    public long getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Gets the number of items processed per second.
+     *
+     * @return the throughput
+     */
+    public double getThroughput() {
+        return elapsed == 0 ? 0 : getTotal() * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+    }
+
+    /**
+     * Gets the latencies of the single requests.
+     *
+     * @return the latencies
+     */
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkStats [created=" + created + ", conflicts=" + conflicts + ", errors=" + errors + ", elapsedMillis="
+                + TimeUnit.NANOSECONDS.toMillis(elapsed) + ", throughput=" + Math.round(getThroughput())
+                + "/s, latencies=" + latencies + "]";
+    }
+}
@@ -0,0 +1,27 @@
+package org.igniterealtime.restclient.enums;
+
+/**
+ * The HTTP transports the rest client can send its requests with.
+ */
+public enum SupportedConnector {
+
+    /**
+     * Jersey's default connector based on {@link java.net.HttpURLConnection}.
+     */
+    HTTP_URL_CONNECTION,
+
+    /**
+     * Apache HttpClient 5 with a pool of keep-alive connections. Requires
+     * {@code org.glassfish.jersey.connectors:jersey-apache5-connector} on the classpath.
+     */
+    APACHE_POOLED,
+
+    /**
+     * {@link java.net.http.HttpClient} negotiating HTTP/2, so concurrent requests share one multiplexed connection.
+     * Falls back to HTTP/1.1 when the server does not speak HTTP/2. Host names are always verified by the JDK, a
+     * hostname verifier set on the builder does not apply. Requires
+     * {@code org.glassfish.jersey.connectors:jersey-jnh-connector} on the classpath.
+     */
+    HTTP2;
+
+}
@@ -0,0 +1,40 @@
+package org.igniterealtime.restclient.exception;
+
+import jakarta.ws.rs.ProcessingException;
+
+import org.igniterealtime.restclient.EndpointFamily;
+
+/**
+ * Thrown instead of sending a request while the circuit breaker of its endpoint family is open.
+ */
+public class CircuitBreakerOpenException extends ProcessingException {
+
+    /**
+     * The Constant serialVersionUID.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The endpoint family.
+     */
+    private final EndpointFamily family;
+
+    /**
+     * Instantiates a new circuit breaker open exception.
+     *
+     * @param family the endpoint family
+     */
+    public CircuitBreakerOpenException(EndpointFamily family) {
+        super("The circuit breaker of " + family + " is open");
+        this.family = family;
+    }
+
+    /**
+     * Gets the endpoint family.
+     *
+     * @return the family
+     */
+    public EndpointFamily getFamily() {
+        return family;
+    }
+}
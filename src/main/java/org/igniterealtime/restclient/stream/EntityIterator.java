@@ -0,0 +1,131 @@
+package org.igniterealtime.restclient.stream;
+
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.igniterealtime.restclient.enums.SupportedMediaType;
+
+/**
+ * Decodes the entities of a list response one at a time, so only the current entity is held in memory. Reading is
+ * lazy: {@link #hasNext()} pulls the next element from the stream and blocks until it is available. Closing the
+ * iterator closes the stream.
+ *
+ * @param <T> the entity type
+ */
+public abstract class EntityIterator<T> implements Iterator<T>, AutoCloseable {
+
+    /**
+     * The stream being decoded.
+     */
+    private final InputStream inputStream;
+
+    /**
+     * The next entity, already decoded.
+     */
+    private T next;
+
+    /**
+     * Whether the end of the list was reached.
+     */
+    private boolean finished;
+
+    /**
+     * Instantiates a new entity iterator.
+     *
+     * @param inputStream the input stream
+     */
+    EntityIterator(InputStream inputStream) {
+        this.inputStream = inputStream;
+    }
+
+    /**
+     * Creates an iterator decoding the given list response.
+     *
+     * @param <T> the entity type
+     * @param inputStream the body of the list response
+     * @param mediaType the media type of the body
+     * @param elementName the XML element name of a single entity, e.g. {@code user}
+     * @param entityType the entity type
+     * @return the entity iterator
+     */
+    public static <T> EntityIterator<T> of(
+            InputStream inputStream,
+            SupportedMediaType mediaType,
+            String elementName,
+            Class<T> entityType) {
+        if (mediaType == SupportedMediaType.JSON) {
+            return new JsonEntityIterator<>(inputStream, entityType);
+        }
+        return new XmlEntityIterator<>(inputStream, elementName, entityType);
+    }
+
+    /**
+     * Decodes the next entity from the stream.
+     *
+     * @return the next entity, or null at the end of the list
+     * @throws Exception if the stream cannot be read or decoded
+     */
+    abstract T readNext() throws Exception;
+
+    /**
+     * Releases the parser.
+     *
+     * @throws Exception if the parser cannot be closed
+     */
+    abstract void closeParser() throws Exception;
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        if (finished) {
+            return false;
+        }
+        try {
+            next = readNext();
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        } catch (Exception e) {
+            close();
+            throw new IllegalStateException("Could not decode the response: " + e, e);
+        }
+        if (next == null) {
+            close();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T current = next;
+        next = null;
+        return current;
+    }
+
+    @Override
+    public void close() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        next = null;
+        try {
+            closeParser();
+        } catch (Exception e) {
+            // the stream is closed below anyway
+        }
+        try {
+            inputStream.close();
+        } catch (Exception e) {
+            // nothing left to release
+        }
+    }
+
+}
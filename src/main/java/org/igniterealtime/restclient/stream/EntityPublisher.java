@@ -0,0 +1,217 @@
+package org.igniterealtime.restclient.stream;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the entities of a list response as they are decoded. Every subscription sends its own request once
+ * demand is signalled and decodes only as many entities as were requested, so a slow subscriber holds back the
+ * download instead of buffering the whole list. Signals are delivered on the given executor, one at a time.
+ *
+ * @param <T> the entity type
+ */
+public final class EntityPublisher<T> implements Flow.Publisher<T> {
+
+    /**
+     * Sends the request and opens the decoder over its response.
+     */
+    private final Callable<EntityIterator<T>> source;
+
+    /**
+     * The executor decoding and delivering entities.
+     */
+    private final Executor executor;
+
+    /**
+     * Instantiates a new entity publisher.
+     *
+     * @param source sends the request and opens the decoder over its response
+     * @param executor the executor decoding and delivering entities
+     */
+    public EntityPublisher(Callable<EntityIterator<T>> source, Executor executor) {
+        this.source = Objects.requireNonNull(source);
+        this.executor = Objects.requireNonNull(executor);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber);
+        EntitySubscription<T> subscription = new EntitySubscription<>(subscriber, source, executor);
+        subscriber.onSubscribe(subscription);
+    }
+
+    /**
+     * A subscription pulling entities from its own decoder. All decoding and signalling happens in {@link #run()},
+     * which is never executed by two threads at once.
+     *
+     * @param <T> the entity type
+     */
+    private static final class EntitySubscription<T> implements Flow.Subscription, Runnable {
+
+        /**
+         * The subscriber.
+         */
+        private final Flow.Subscriber<? super T> subscriber;
+
+        /**
+         * The source.
+         */
+        private final Callable<EntityIterator<T>> source;
+
+        /**
+         * The executor.
+         */
+        private final Executor executor;
+
+        /**
+         * The outstanding demand.
+         */
+        private final AtomicLong requested = new AtomicLong();
+
+        /**
+         * The number of times the drain loop was asked to run.
+         */
+        private final AtomicInteger pending = new AtomicInteger();
+
+        /**
+         * Whether the subscriber cancelled.
+         */
+        private volatile boolean cancelled;
+
+        /**
+         * A non-positive request to report to the subscriber.
+         */
+        private volatile long invalidRequest;
+
+        /**
+         * The decoder, only touched by the drain loop.
+         */
+        private EntityIterator<T> iterator;
+
+        /**
+         * Whether a terminal signal was sent, only touched by the drain loop.
+         */
+        private boolean done;
+
+        /**
+         * Instantiates a new entity subscription.
+         *
+         * @param subscriber the subscriber
+         * @param source the source
+         * @param executor the executor
+         */
+        EntitySubscription(Flow.Subscriber<? super T> subscriber, Callable<EntityIterator<T>> source,
+                Executor executor) {
+            this.subscriber = subscriber;
+            this.source = source;
+            this.executor = executor;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = n;
+            } else {
+                requested.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            schedule();
+        }
+
+        /**
+         * Makes sure the drain loop runs after this call.
+         */
+        private void schedule() {
+            if (pending.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    cancelled = true;
+                    pending.set(0);
+                    subscriber.onError(e);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            while (true) {
+                if (!done) {
+                    drain();
+                }
+                missed = pending.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Emits as many entities as requested.
+         */
+        private void drain() {
+            if (cancelled) {
+                terminate();
+                return;
+            }
+            if (invalidRequest != 0) {
+                terminate();
+                subscriber.onError(new IllegalArgumentException(
+                        "Requested a non-positive number of entities: " + invalidRequest));
+                return;
+            }
+            long demand = requested.get();
+            if (demand == 0) {
+                return;
+            }
+            try {
+                if (iterator == null) {
+                    iterator = source.call();
+                }
+                long emitted = 0;
+                while (emitted != demand) {
+                    if (cancelled) {
+                        terminate();
+                        return;
+                    }
+                    if (!iterator.hasNext()) {
+                        terminate();
+                        subscriber.onComplete();
+                        return;
+                    }
+                    subscriber.onNext(iterator.next());
+                    emitted++;
+                }
+                if (demand != Long.MAX_VALUE) {
+                    requested.addAndGet(-emitted);
+                }
+            } catch (Throwable e) {
+                terminate();
+                subscriber.onError(e);
+            }
+        }
+
+        /**
+         * Marks the subscription done and releases the response.
+         */
+        private void terminate() {
+            done = true;
+            if (iterator != null) {
+                iterator.close();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,82 @@
+package org.igniterealtime.restclient.stream;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Unmarshaller;
+
+import org.eclipse.persistence.jaxb.JAXBContextFactory;
+import org.eclipse.persistence.jaxb.UnmarshallerProperties;
+
+/**
+ * Caches the JAXB contexts used to decode single entities, as creating a context is expensive.
+ */
+final class JaxbContexts {
+
+    /**
+     * The XML contexts by entity type.
+     */
+    private static final Map<Class<?>, JAXBContext> XML = new ConcurrentHashMap<>();
+
+    /**
+     * The MOXy contexts for JSON by entity type.
+     */
+    private static final Map<Class<?>, JAXBContext> JSON = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates the jaxb contexts.
+     */
+    private JaxbContexts() {
+    }
+
+    /**
+     * Creates an XML unmarshaller.
+     *
+     * @param entityType the entity type
+     * @return the unmarshaller
+     * @throws JAXBException the JAXB exception
+     */
+    static Unmarshaller xmlUnmarshaller(Class<?> entityType) throws JAXBException {
+        return context(XML, entityType, false).createUnmarshaller();
+    }
+
+    /**
+     * Creates a JSON unmarshaller matching the settings of {@code RestClient.createMoxyJsonResolver()}.
+     *
+     * @param entityType the entity type
+     * @return the unmarshaller
+     * @throws JAXBException the JAXB exception
+     */
+    static Unmarshaller jsonUnmarshaller(Class<?> entityType) throws JAXBException {
+        Unmarshaller unmarshaller = context(JSON, entityType, true).createUnmarshaller();
+        unmarshaller.setProperty(UnmarshallerProperties.MEDIA_TYPE, "application/json");
+        unmarshaller.setProperty(UnmarshallerProperties.JSON_INCLUDE_ROOT, false);
+        unmarshaller.setProperty(UnmarshallerProperties.JSON_ATTRIBUTE_PREFIX, "");
+        unmarshaller.setProperty(UnmarshallerProperties.JSON_VALUE_WRAPPER, "value");
+        unmarshaller.setProperty(UnmarshallerProperties.JSON_WRAPPER_AS_ARRAY_NAME, true);
+        return unmarshaller;
+    }
+
+    /**
+     * Gets or creates the context of an entity type.
+     *
+     * @param cache the cache
+     * @param entityType the entity type
+     * @param moxy whether the context has to be a MOXy one
+     * @return the context
+     * @throws JAXBException the JAXB exception
+     */
+    private static JAXBContext context(Map<Class<?>, JAXBContext> cache, Class<?> entityType, boolean moxy)
+            throws JAXBException {
+        JAXBContext context = cache.get(entityType);
+        if (context == null) {
+            Class<?>[] types = new Class<?>[]{entityType};
+            context = moxy ? JAXBContextFactory.createContext(types, null) : JAXBContext.newInstance(types);
+            cache.put(entityType, context);
+        }
+        return context;
+    }
+
+}
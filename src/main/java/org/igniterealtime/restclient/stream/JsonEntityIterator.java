@@ -0,0 +1,128 @@
+package org.igniterealtime.restclient.stream;
+
+import java.io.InputStream;
+
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParser.Event;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Unmarshaller;
+
+import org.eclipse.persistence.oxm.json.JsonStructureSource;
+
+/**
+ * Walks a JSON list response with a streaming parser and binds the objects of its array one by one. Accepts a bare
+ * array as well as an object wrapping the array, e.g. {@code {"users": [...]}}; a wrapped single object instead of an
+ * array is treated as a one element list.
+ *
+ * @param <T> the entity type
+ */
+final class JsonEntityIterator<T> extends EntityIterator<T> {
+
+    /**
+     * The entity type.
+     */
+    private final Class<T> entityType;
+
+    /**
+     * The parser.
+     */
+    private final JsonParser parser;
+
+    /**
+     * The unmarshaller.
+     */
+    private final Unmarshaller unmarshaller;
+
+    /**
+     * Whether the document is an object wrapping the list.
+     */
+    private boolean wrapped;
+
+    /**
+     * Whether the parser is inside the list array.
+     */
+    private boolean inArray;
+
+    /**
+     * Whether the first event was read.
+     */
+    private boolean started;
+
+    /**
+     * Instantiates a new json entity iterator.
+     *
+     * @param inputStream the input stream
+     * @param entityType the entity type
+     */
+    JsonEntityIterator(InputStream inputStream, Class<T> entityType) {
+        super(inputStream);
+        this.entityType = entityType;
+        this.parser = Json.createParser(inputStream);
+        try {
+            this.unmarshaller = JaxbContexts.jsonUnmarshaller(entityType);
+        } catch (JAXBException e) {
+            throw new IllegalStateException("Could not read the response: " + e, e);
+        }
+    }
+
+    @Override
+    T readNext() throws JAXBException {
+        if (!started) {
+            started = true;
+            if (!parser.hasNext()) {
+                return null;
+            }
+            Event first = parser.next();
+            if (first == Event.START_ARRAY) {
+                inArray = true;
+            } else if (first == Event.START_OBJECT) {
+                wrapped = true;
+            } else {
+                return null;
+            }
+        }
+        while (parser.hasNext()) {
+            Event event = parser.next();
+            if (inArray) {
+                if (event == Event.START_OBJECT) {
+                    return bind(parser.getObject());
+                } else if (event == Event.START_ARRAY) {
+                    parser.skipArray();
+                } else if (event == Event.END_ARRAY) {
+                    inArray = false;
+                    if (!wrapped) {
+                        return null;
+                    }
+                }
+            } else if (wrapped) {
+                if (event == Event.START_ARRAY) {
+                    inArray = true;
+                } else if (event == Event.START_OBJECT) {
+                    return bind(parser.getObject());
+                } else if (event == Event.END_OBJECT) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Binds a single JSON object to the entity type.
+     *
+     * @param object the object
+     * @return the entity
+     * @throws JAXBException the JAXB exception
+     */
+    private T bind(JsonObject object) throws JAXBException {
+        return unmarshaller.unmarshal(new JsonStructureSource(object), entityType).getValue();
+    }
+
+    @Override
+    void closeParser() {
+        parser.close();
+    }
+
+}
@@ -0,0 +1,106 @@
+package org.igniterealtime.restclient.stream;
+
+import java.io.InputStream;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Unmarshaller;
+
+/**
+ * Pulls the direct children of the root element with StAX and unmarshals them one by one.
+ *
+ * @param <T> the entity type
+ */
+final class XmlEntityIterator<T> extends EntityIterator<T> {
+
+    /**
+     * The input factory, safe for concurrent use once configured.
+     */
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    /**
+     * The element name of a single entity.
+     */
+    private final String elementName;
+
+    /**
+     * The entity type.
+     */
+    private final Class<T> entityType;
+
+    /**
+     * The reader.
+     */
+    private final XMLStreamReader reader;
+
+    /**
+     * The unmarshaller.
+     */
+    private final Unmarshaller unmarshaller;
+
+    /**
+     * The element depth of the reader's position.
+     */
+    private int depth;
+
+    /**
+     * Instantiates a new xml entity iterator.
+     *
+     * @param inputStream the input stream
+     * @param elementName the element name
+     * @param entityType the entity type
+     */
+    XmlEntityIterator(InputStream inputStream, String elementName, Class<T> entityType) {
+        super(inputStream);
+        this.elementName = elementName;
+        this.entityType = entityType;
+        try {
+            this.reader = INPUT_FACTORY.createXMLStreamReader(inputStream);
+            this.unmarshaller = JaxbContexts.xmlUnmarshaller(entityType);
+        } catch (XMLStreamException | JAXBException e) {
+            throw new IllegalStateException("Could not read the response: " + e, e);
+        }
+    }
+
+    @Override
+    T readNext() throws XMLStreamException, JAXBException {
+        int event = reader.getEventType();
+        while (true) {
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (depth == 1 && elementName.equals(reader.getLocalName())) {
+                    // leaves the reader on the event following the element's end tag
+                    return unmarshaller.unmarshal(reader, entityType).getValue();
+                }
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+            if (!reader.hasNext()) {
+                return null;
+            }
+            event = reader.next();
+        }
+    }
+
+    @Override
+    void closeParser() throws XMLStreamException {
+        reader.close();
+    }
+
+    /**
+     * Creates the input factory with external entities and DTDs disabled.
+     *
+     * @return the input factory
+     */
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        return factory;
+    }
+
+}
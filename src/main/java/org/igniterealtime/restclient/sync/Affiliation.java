@@ -0,0 +1,147 @@
+package org.igniterealtime.restclient.sync;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.igniterealtime.restclient.Endpoint;
+import org.igniterealtime.restclient.entity.MUCRoomEntity;
+
+/**
+ * The affiliations of a chat room, with the lists holding them and the endpoints changing them.
+ */
+public enum Affiliation {
+
+    /**
+     * The owners.
+     */
+    OWNER(MUCRoomEntity::getOwners, MUCRoomEntity::setOwners, MUCRoomEntity::getOwnerGroups,
+            MUCRoomEntity::setOwnerGroups, Endpoint.ADD_OWNER, Endpoint.DELETE_OWNER, Endpoint.ADD_OWNER_GROUP,
+            Endpoint.DELETE_OWNER_GROUP),
+
+    /**
+     * The admins.
+     */
+    ADMIN(MUCRoomEntity::getAdmins, MUCRoomEntity::setAdmins, MUCRoomEntity::getAdminGroups,
+            MUCRoomEntity::setAdminGroups, Endpoint.ADD_ADMIN, Endpoint.DELETE_ADMIN, Endpoint.ADD_ADMIN_GROUP,
+            Endpoint.DELETE_ADMIN_GROUP),
+
+    /**
+     * The members.
+     */
+    MEMBER(MUCRoomEntity::getMembers, MUCRoomEntity::setMembers, MUCRoomEntity::getMemberGroups,
+            MUCRoomEntity::setMemberGroups, Endpoint.ADD_MEMBER, Endpoint.DELETE_MEMBER, Endpoint.ADD_MEMBER_GROUP,
+            Endpoint.DELETE_MEMBER_GROUP),
+
+    /**
+     * The outcasts.
+     */
+    OUTCAST(MUCRoomEntity::getOutcasts, MUCRoomEntity::setOutcasts, MUCRoomEntity::getOutcastGroups,
+            MUCRoomEntity::setOutcastGroups, Endpoint.ADD_OUTCAST, Endpoint.DELETE_OUTCAST,
+            Endpoint.ADD_OUTCAST_GROUP, Endpoint.DELETE_OUTCAST_GROUP);
+
+    /**
+     * Reads the user list.
+     */
+    private final Function<MUCRoomEntity, List<String>> users;
+
+    /**
+     * Writes the user list.
+     */
+    private final BiConsumer<MUCRoomEntity, List<String>> setUsers;
+
+    /**
+     * Reads the group list.
+     */
+    private final Function<MUCRoomEntity, List<String>> groups;
+
+    /**
+     * Writes the group list.
+     */
+    private final BiConsumer<MUCRoomEntity, List<String>> setGroups;
+
+    /**
+     * The endpoint adding a user.
+     */
+    private final Endpoint addUser;
+
+    /**
+     * The endpoint deleting a user.
+     */
+    private final Endpoint deleteUser;
+
+    /**
+     * The endpoint adding a group.
+     */
+    private final Endpoint addGroup;
+
+    /**
+     * The endpoint deleting a group.
+     */
+    private final Endpoint deleteGroup;
+
+    /**
+     * Instantiates a new affiliation.
+     *
+     * @param users reads the user list
+     * @param setUsers writes the user list
+     * @param groups reads the group list
+     * @param setGroups writes the group list
+     * @param addUser the endpoint adding a user
+     * @param deleteUser the endpoint deleting a user
+     * @param addGroup the endpoint adding a group
+     * @param deleteGroup the endpoint deleting a group
+     */
+    Affiliation(Function<MUCRoomEntity, List<String>> users, BiConsumer<MUCRoomEntity, List<String>> setUsers,
+            Function<MUCRoomEntity, List<String>> groups, BiConsumer<MUCRoomEntity, List<String>> setGroups,
+            Endpoint addUser, Endpoint deleteUser, Endpoint addGroup, Endpoint deleteGroup) {
+        this.users = users;
+        this.setUsers = setUsers;
+        this.groups = groups;
+        this.setGroups = setGroups;
+        this.addUser = addUser;
+        this.deleteUser = deleteUser;
+        this.addGroup = addGroup;
+        this.deleteGroup = deleteGroup;
+    }
+
+    /**
+     * Gets the user or group list of a room.
+     *
+     * @param room the room
+     * @param group whether to get the group list
+     * @return the list, may be null
+     */
+    List<String> get(MUCRoomEntity room, boolean group) {
+        return group ? groups.apply(room) : users.apply(room);
+    }
+
+    /**
+     * Sets the user or group list of a room.
+     *
+     * @param room the room
+     * @param group whether to set the group list
+     * @param list the list
+     */
+    void set(MUCRoomEntity room, boolean group, List<String> list) {
+        if (group) {
+            setGroups.accept(room, list);
+        } else {
+            setUsers.accept(room, list);
+        }
+    }
+
+    /**
+     * Gets the endpoint applying a change.
+     *
+     * @param group whether a group is changed
+     * @param add whether the affiliation is granted rather than revoked
+     * @return the endpoint
+     */
+    Endpoint endpoint(boolean group, boolean add) {
+        if (group) {
+            return add ? addGroup : deleteGroup;
+        }
+        return add ? addUser : deleteUser;
+    }
+}
@@ -0,0 +1,95 @@
+package org.igniterealtime.restclient.sync;
+
+import org.igniterealtime.restclient.Endpoint;
+
+/**
+ * One affiliation granted to or revoked from a user or a group of a chat room.
+ */
+public final class AffiliationChange {
+
+    /**
+     * The affiliation.
+     */
+    private final Affiliation affiliation;
+
+    /**
+     * Whether the name is a group rather than a user JID.
+     */
+    private final boolean group;
+
+    /**
+     * The user JID or group name.
+     */
+    private final String name;
+
+    /**
+     * Whether the affiliation is granted rather than revoked.
+     */
+    private final boolean add;
+
+    /**
+     * Instantiates a new affiliation change.
+     *
+     * @param affiliation the affiliation
+     * @param group whether the name is a group
+     * @param name the user JID or group name
+     * @param add whether the affiliation is granted
+     */
+    public AffiliationChange(Affiliation affiliation, boolean group, String name, boolean add) {
+        this.affiliation = affiliation;
+        this.group = group;
+        this.name = name;
+        this.add = add;
+    }
+
+    /**
+     * Gets the affiliation.
+     *
+     * @return the affiliation
+     */
+    public Affiliation getAffiliation() {
+        return affiliation;
+    }
+
+    /**
+     * Checks if the name is a group rather than a user JID.
+     *
+     * @return true, if group
+     */
+    public boolean isGroup() {
+        return group;
+    }
+
+    /**
+     * Gets the user JID or group name.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Checks if the affiliation is granted rather than revoked.
+     *
+     * @return true, if add
+     */
+    public boolean isAdd() {
+        return add;
+    }
+
+    /**
+     * Gets the endpoint applying the change.
+     *
+     * @return the endpoint
+     */
+    public Endpoint getEndpoint() {
+        return affiliation.endpoint(group, add);
+    }
+
+    @Override
+    public String toString() {
+        return "AffiliationChange [" + (add ? "add " : "delete ") + affiliation + (group ? " group " : " ") + name
+                + "]";
+    }
+}
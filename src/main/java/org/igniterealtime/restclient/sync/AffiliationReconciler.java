@@ -0,0 +1,283 @@
+package org.igniterealtime.restclient.sync;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import jakarta.ws.rs.core.Response;
+
+import org.igniterealtime.restclient.Endpoint;
+import org.igniterealtime.restclient.EntityCache;
+import org.igniterealtime.restclient.RestApiClient;
+import org.igniterealtime.restclient.bulk.BulkExecutor;
+import org.igniterealtime.restclient.bulk.BulkItemResult;
+import org.igniterealtime.restclient.bulk.BulkOutcome;
+import org.igniterealtime.restclient.bulk.BulkResult;
+import org.igniterealtime.restclient.entity.MUCRoomEntity;
+
+/**
+ * Brings the affiliations of a chat room to a desired state with as few calls as possible. The room is fetched once,
+ * the desired lists are diffed against it, and the changes are sent either as one call each, in parallel, or as a
+ * single update of the whole room, whichever the {@link SyncOptions} pick.
+ * <p>
+ * Lists left null in the desired room are not touched, empty lists revoke every affiliation of their kind. User JIDs
+ * are compared ignoring case, group names exactly. A user or group granted a new affiliation is not revoked from its
+ * old one first, since granting already replaces it; a single update drops it from its old list instead.
+ */
+public final class AffiliationReconciler {
+
+    /**
+     * The client.
+     */
+    private final RestApiClient client;
+
+    /**
+     * The options.
+     */
+    private final SyncOptions options;
+
+    /**
+     * Instantiates a new affiliation reconciler.
+     *
+     * @param client the client
+     * @param options the options
+     */
+    public AffiliationReconciler(RestApiClient client, SyncOptions options) {
+        this.client = client;
+        this.options = options;
+    }
+
+    /**
+     * Fetches a room and computes the changes bringing it to the desired affiliations, without applying them.
+     *
+     * @param desired the desired room, identified by its name
+     * @return the changes
+     */
+    public List<AffiliationChange> plan(MUCRoomEntity desired) {
+        return plan(fetch(desired.getRoomName()), desired);
+    }
+
+    /**
+     * Computes the changes bringing a room to the desired affiliations. Additions come first.
+     *
+     * @param current the current room
+     * @param desired the desired room
+     * @return the changes
+     */
+    public static List<AffiliationChange> plan(MUCRoomEntity current, MUCRoomEntity desired) {
+        List<AffiliationChange> additions = new ArrayList<>();
+        List<AffiliationChange> removals = new ArrayList<>();
+        for (boolean group : new boolean[] { false, true }) {
+            for (Affiliation affiliation : Affiliation.values()) {
+                List<String> wanted = affiliation.get(desired, group);
+                if (wanted == null) {
+                    continue;
+                }
+                Map<String, String> have = index(affiliation.get(current, group), group);
+                Map<String, String> want = index(wanted, group);
+                for (Map.Entry<String, String> entry : want.entrySet()) {
+                    if (!have.containsKey(entry.getKey())) {
+                        additions.add(new AffiliationChange(affiliation, group, entry.getValue(), true));
+                    }
+                }
+                for (Map.Entry<String, String> entry : have.entrySet()) {
+                    if (!want.containsKey(entry.getKey())) {
+                        removals.add(new AffiliationChange(affiliation, group, entry.getValue(), false));
+                    }
+                }
+            }
+        }
+        Set<String> moved = new HashSet<>();
+        for (AffiliationChange addition : additions) {
+            moved.add(key(addition.getName(), addition.isGroup()));
+        }
+        List<AffiliationChange> changes = new ArrayList<>(additions);
+        for (AffiliationChange removal : removals) {
+            if (!moved.contains(key(removal.getName(), removal.isGroup()))) {
+                changes.add(removal);
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Fetches a room and applies the changes bringing it to the desired affiliations.
+     *
+     * @param desired the desired room, identified by its name
+     * @return the affiliation sync result
+     */
+    public AffiliationSyncResult reconcile(MUCRoomEntity desired) {
+        String roomName = desired.getRoomName();
+        MUCRoomEntity current = fetch(roomName);
+        List<AffiliationChange> changes = plan(current, desired);
+        if (changes.isEmpty()) {
+            return new AffiliationSyncResult(roomName, changes, false, 0, Collections.emptyList());
+        }
+        try {
+            if (options.isFineGrained(changes.size())) {
+                return applyChanges(roomName, changes);
+            }
+            return applyUpdate(current, desired, changes);
+        } finally {
+            EntityCache cache = client.getCache();
+            if (cache != null) {
+                cache.invalidate(Endpoint.CHAT_ROOM, roomName);
+            }
+        }
+    }
+
+    /**
+     * Sends one call per change.
+     *
+     * @param roomName the room name
+     * @param changes the changes
+     * @return the affiliation sync result
+     */
+    private AffiliationSyncResult applyChanges(String roomName, List<AffiliationChange> changes) {
+        BulkResult<AffiliationChange> result = new BulkExecutor(options.toBulkOptions()).run(changes,
+                change -> client.getRestClient().<Response>callAsync(change.getEndpoint(), null, null, roomName,
+                        change.getName()));
+        List<BulkItemResult<AffiliationChange>> failures = new ArrayList<>();
+        for (BulkItemResult<AffiliationChange> item : result.getResults()) {
+            if (item.getOutcome() != BulkOutcome.CREATED) {
+                failures.add(item);
+            }
+        }
+        return new AffiliationSyncResult(roomName, changes, false, changes.size(), failures);
+    }
+
+    /**
+     * Replaces the affiliations of the room with a single update. The update is built on a copy of the room, since the
+     * fetched room may be shared with other callers, and a name moved to a new affiliation is dropped from the lists
+     * left untouched so the update does not grant it twice.
+     *
+     * @param current the current room
+     * @param desired the desired room
+     * @param changes the changes
+     * @return the affiliation sync result
+     */
+    private AffiliationSyncResult applyUpdate(MUCRoomEntity current, MUCRoomEntity desired,
+            List<AffiliationChange> changes) {
+        MUCRoomEntity room = copy(current);
+        for (boolean group : new boolean[] { false, true }) {
+            Set<String> granted = new HashSet<>();
+            for (Affiliation affiliation : Affiliation.values()) {
+                granted.addAll(index(affiliation.get(desired, group), group).keySet());
+            }
+            for (Affiliation affiliation : Affiliation.values()) {
+                List<String> wanted = affiliation.get(desired, group);
+                if (wanted != null) {
+                    affiliation.set(room, group, new ArrayList<>(wanted));
+                    continue;
+                }
+                List<String> have = affiliation.get(current, group);
+                if (have == null) {
+                    continue;
+                }
+                List<String> kept = new ArrayList<>();
+                for (String name : index(have, group).values()) {
+                    if (!granted.contains(key(name, group))) {
+                        kept.add(name);
+                    }
+                }
+                affiliation.set(room, group, kept);
+            }
+        }
+        long sent = System.nanoTime();
+        BulkItemResult<MUCRoomEntity> item;
+        try {
+            item = BulkExecutor.toResult(room, client.updateChatRoom(room), null, System.nanoTime() - sent);
+        } catch (RuntimeException e) {
+            item = BulkExecutor.toResult(room, null, e, System.nanoTime() - sent);
+        }
+        List<BulkItemResult<AffiliationChange>> failures = new ArrayList<>();
+        if (item.getOutcome() != BulkOutcome.CREATED) {
+            for (AffiliationChange change : changes) {
+                failures.add(new BulkItemResult<>(change, item.getOutcome(), item.getStatus(),
+                        item.getErrorResponse(), item.getException(), item.getLatency()));
+            }
+        }
+        return new AffiliationSyncResult(current.getRoomName(), changes, true, 1, failures);
+    }
+
+    /**
+     * Fetches the current state of a room from the server, bypassing the entity cache.
+     *
+     * @param roomName the room name
+     * @return the room
+     */
+    private MUCRoomEntity fetch(String roomName) {
+        return client.getRestClient().get(Endpoint.CHAT_ROOM, roomName);
+    }
+
+    /**
+     * Copies a room, with its own affiliation lists.
+     *
+     * @param room the room
+     * @return the copy
+     */
+    private static MUCRoomEntity copy(MUCRoomEntity room) {
+        MUCRoomEntity copy = new MUCRoomEntity(room.getNaturalName(), room.getRoomName(), room.getDescription());
+        copy.setPassword(room.getPassword());
+        copy.setSubject(room.getSubject());
+        copy.setMaxUsers(room.getMaxUsers());
+        copy.setCreationDate(room.getCreationDate());
+        copy.setModificationDate(room.getModificationDate());
+        copy.setPersistent(room.isPersistent());
+        copy.setPublicRoom(room.isPublicRoom());
+        copy.setRegistrationEnabled(room.isRegistrationEnabled());
+        copy.setCanAnyoneDiscoverJID(room.isCanAnyoneDiscoverJID());
+        copy.setCanOccupantsChangeSubject(room.isCanOccupantsChangeSubject());
+        copy.setCanOccupantsInvite(room.isCanOccupantsInvite());
+        copy.setCanChangeNickname(room.isCanChangeNickname());
+        copy.setLogEnabled(room.isLogEnabled());
+        copy.setLoginRestrictedToNickname(room.isLoginRestrictedToNickname());
+        copy.setMembersOnly(room.isMembersOnly());
+        copy.setModerated(room.isModerated());
+        if (room.getBroadcastPresenceRoles() != null) {
+            copy.setBroadcastPresenceRoles(new ArrayList<>(room.getBroadcastPresenceRoles()));
+        }
+        for (boolean group : new boolean[] { false, true }) {
+            for (Affiliation affiliation : Affiliation.values()) {
+                List<String> list = affiliation.get(room, group);
+                if (list != null) {
+                    affiliation.set(copy, group, new ArrayList<>(list));
+                }
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Indexes names by their comparison key, dropping duplicates.
+     *
+     * @param names the names, may be null
+     * @param group whether the names are groups
+     * @return the names by key
+     */
+    private static Map<String, String> index(List<String> names, boolean group) {
+        Map<String, String> index = new LinkedHashMap<>();
+        if (names != null) {
+            for (String name : names) {
+                index.putIfAbsent(key(name, group), name);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Gets the comparison key of a name.
+     *
+     * @param name the name
+     * @param group whether the name is a group
+     * @return the key
+     */
+    private static String key(String name, boolean group) {
+        return group ? "g:" + name : "u:" + name.toLowerCase(Locale.ROOT);
+    }
+}
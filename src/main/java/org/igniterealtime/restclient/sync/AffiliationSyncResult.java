@@ -0,0 +1,115 @@
+package org.igniterealtime.restclient.sync;
+
+import java.util.List;
+
+import org.igniterealtime.restclient.bulk.BulkItemResult;
+
+/**
+ * The Class AffiliationSyncResult.
+ */
+public final class AffiliationSyncResult {
+
+    /**
+     * The room name.
+     */
+    private final String roomName;
+
+    /**
+     * The changes found.
+     */
+    private final List<AffiliationChange> changes;
+
+    /**
+     * Whether the changes were applied by replacing the room.
+     */
+    private final boolean fullUpdate;
+
+    /**
+     * The number of calls made to apply the changes.
+     */
+    private final int calls;
+
+    /**
+     * The changes that could not be applied.
+     */
+    private final List<BulkItemResult<AffiliationChange>> failures;
+
+    /**
+     * Instantiates a new affiliation sync result.
+     *
+     * @param roomName the room name
+     * @param changes the changes
+     * @param fullUpdate whether the room was replaced
+     * @param calls the number of calls
+     * @param failures the failures
+     */
+    public AffiliationSyncResult(String roomName, List<AffiliationChange> changes, boolean fullUpdate, int calls,
+            List<BulkItemResult<AffiliationChange>> failures) {
+        this.roomName = roomName;
+        this.changes = changes;
+        this.fullUpdate = fullUpdate;
+        this.calls = calls;
+        this.failures = failures;
+    }
+
+    /**
+     * Gets the room name.
+     *
+     * @return the room name
+     */
+    public String getRoomName() {
+        return roomName;
+    }
+
+    /**
+     * Gets the changes found between the desired and the actual affiliations.
+     *
+     * @return the changes
+     */
+    public List<AffiliationChange> getChanges() {
+        return changes;
+    }
+
+    /**
+     * Checks if the changes were applied by replacing the room rather than by single calls.
+     *
+     * @return true, if full update
+     */
+    public boolean isFullUpdate() {
+        return fullUpdate;
+    }
+
+    /**
+     * Gets the number of calls made to apply the changes, not counting the fetch of the room.
+     *
+     * @return the calls
+     */
+    public int getCalls() {
+        return calls;
+    }
+
+    /**
+     * Gets the changes that could not be applied. When the room was replaced, a failure of the update is reported for
+     * every change.
+     *
+     * @return the failures
+     */
+    public List<BulkItemResult<AffiliationChange>> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Checks if every change was applied.
+     *
+     * @return true, if successful
+     */
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "AffiliationSyncResult [roomName=" + roomName + ", changes=" + changes.size() + ", fullUpdate="
+                + fullUpdate + ", calls=" + calls + ", failures=" + failures.size() + "]";
+    }
+}
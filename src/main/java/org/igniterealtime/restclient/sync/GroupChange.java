@@ -0,0 +1,160 @@
+package org.igniterealtime.restclient.sync;
+
+import java.util.concurrent.CompletableFuture;
+
+import jakarta.ws.rs.core.Response;
+
+import org.igniterealtime.restclient.AsyncRestApiClient;
+import org.igniterealtime.restclient.entity.GroupEntity;
+
+/**
+ * One call bringing a group to its desired state.
+ */
+public final class GroupChange {
+
+    /**
+     * The kind of change.
+     */
+    public enum Type {
+
+        /**
+         * A user is added as a member.
+         */
+        ADD_MEMBER,
+
+        /**
+         * A user is removed from the group.
+         */
+        DELETE_MEMBER,
+
+        /**
+         * The whole group is replaced.
+         */
+        UPDATE
+    }
+
+    /**
+     * The type.
+     */
+    private final Type type;
+
+    /**
+     * The group name.
+     */
+    private final String groupName;
+
+    /**
+     * The username, null for an update.
+     */
+    private final String username;
+
+    /**
+     * The replacement group, null unless this is an update.
+     */
+    private final GroupEntity group;
+
+    /**
+     * Instantiates a new group change.
+     *
+     * @param type the type
+     * @param groupName the group name
+     * @param username the username
+     * @param group the replacement group
+     */
+    private GroupChange(Type type, String groupName, String username, GroupEntity group) {
+        this.type = type;
+        this.groupName = groupName;
+        this.username = username;
+        this.group = group;
+    }
+
+    /**
+     * Adds a user as a member.
+     *
+     * @param groupName the group name
+     * @param username the username
+     * @return the group change
+     */
+    public static GroupChange addMember(String groupName, String username) {
+        return new GroupChange(Type.ADD_MEMBER, groupName, username, null);
+    }
+
+    /**
+     * Removes a user from a group.
+     *
+     * @param groupName the group name
+     * @param username the username
+     * @return the group change
+     */
+    public static GroupChange deleteMember(String groupName, String username) {
+        return new GroupChange(Type.DELETE_MEMBER, groupName, username, null);
+    }
+
+    /**
+     * Replaces a group.
+     *
+     * @param group the group
+     * @return the group change
+     */
+    public static GroupChange update(GroupEntity group) {
+        return new GroupChange(Type.UPDATE, group.getName(), null, group);
+    }
+
+    /**
+     * Sends the change.
+     *
+     * @param client the client
+     * @return the future response
+     */
+    CompletableFuture<Response> send(AsyncRestApiClient client) {
+        switch (type) {
+            case ADD_MEMBER:
+                return client.addUserToGroup(username, groupName);
+            case DELETE_MEMBER:
+                return client.deleteUserFromGroup(username, groupName);
+            default:
+                return client.updateGroup(group);
+        }
+    }
+
+    /**
+     * Gets the type.
+     *
+     * @return the type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the group name.
+     *
+     * @return the group name
+     */
+    public String getGroupName() {
+        return groupName;
+    }
+
+    /**
+     * Gets the username.
+     *
+     * @return the username, null for an update
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Gets the replacement group.
+     *
+     * @return the group, null unless this is an update
+     */
+    public GroupEntity getGroup() {
+        return group;
+    }
+
+    @Override
+    public String toString() {
+        return "GroupChange [" + type + " " + groupName + (username != null ? " " + username : "") + "]";
+    }
+}
@@ -0,0 +1,120 @@
+package org.igniterealtime.restclient.sync;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.igniterealtime.restclient.AsyncRestApiClient;
+import org.igniterealtime.restclient.Endpoint;
+import org.igniterealtime.restclient.RestApiClient;
+import org.igniterealtime.restclient.entity.GroupEntity;
+
+/**
+ * Brings the members and admins of many groups to a desired state, typically mirrored from a directory. Every group is
+ * fetched, its lists are diffed against the desired ones with hash sets, and only the changes are sent, with a bounded
+ * number of calls in flight across all groups.
+ * <p>
+ * Member changes are sent as single add and delete calls, so a few changes to a large group do not ship its whole
+ * member list. Admins can only be set by replacing the group, so an admin change, or more member changes than the
+ * {@link SyncOptions} allow as single calls, replaces the group with one update. Lists left null in a desired group
+ * are not touched. Usernames are compared ignoring case.
+ */
+public final class GroupSynchronizer {
+
+    /**
+     * The client.
+     */
+    private final RestApiClient client;
+
+    /**
+     * The options.
+     */
+    private final SyncOptions options;
+
+    /**
+     * Instantiates a new group synchronizer.
+     *
+     * @param client the client
+     * @param options the options
+     */
+    public GroupSynchronizer(RestApiClient client, SyncOptions options) {
+        this.client = client;
+        this.options = options;
+    }
+
+    /**
+     * Synchronizes groups. Groups that cannot be fetched, including missing ones, are reported and left alone.
+     *
+     * @param desired the desired groups, identified by their names
+     * @return the sync result
+     */
+    public SyncResult<GroupChange> sync(Iterable<GroupEntity> desired) {
+        AsyncRestApiClient async = client.async();
+        return new SyncRunner<GroupEntity, GroupEntity, GroupChange>(options, GroupEntity::getName,
+                group -> client.getRestClient().getAsync(Endpoint.GROUP, group.getName()),
+                (group, current, changes) -> plan(group, current, options, changes),
+                change -> change.send(async)).run(desired);
+    }
+
+    /**
+     * Computes the changes bringing a group to its desired state.
+     *
+     * @param desired the desired group
+     * @param current the current group
+     * @param options the options
+     * @param changes collects the changes
+     * @return the number of calls a blind loop over every desired entry would have sent
+     */
+    static int plan(GroupEntity desired, GroupEntity current, SyncOptions options, List<GroupChange> changes) {
+        String name = desired.getName();
+        Map<String, String> members = index(current.getMembers());
+        Map<String, String> admins = index(current.getAdmins());
+        boolean adminsChanged = desired.getAdmins() != null
+                && !index(desired.getAdmins()).keySet().equals(admins.keySet());
+
+        List<GroupChange> memberChanges = new ArrayList<>();
+        int blindCalls = desired.getAdmins() != null ? 1 : 0;
+        if (desired.getMembers() != null) {
+            Map<String, String> wanted = index(desired.getMembers());
+            blindCalls += wanted.size();
+            for (Map.Entry<String, String> entry : wanted.entrySet()) {
+                if (!members.containsKey(entry.getKey()) && (adminsChanged || !admins.containsKey(entry.getKey()))) {
+                    memberChanges.add(GroupChange.addMember(name, entry.getValue()));
+                }
+            }
+            for (Map.Entry<String, String> entry : members.entrySet()) {
+                if (!wanted.containsKey(entry.getKey())) {
+                    memberChanges.add(GroupChange.deleteMember(name, entry.getValue()));
+                    blindCalls++;
+                }
+            }
+        }
+
+        if (adminsChanged || (!memberChanges.isEmpty() && !options.isFineGrained(memberChanges.size()))) {
+            changes.add(GroupChange.update(new GroupEntity(name, current.getDescription(),
+                    desired.getAdmins() != null ? desired.getAdmins() : current.getAdmins(),
+                    desired.getMembers() != null ? desired.getMembers() : current.getMembers())));
+        } else {
+            changes.addAll(memberChanges);
+        }
+        return blindCalls;
+    }
+
+    /**
+     * Indexes usernames by their lower case form, dropping duplicates.
+     *
+     * @param usernames the usernames, may be null
+     * @return the usernames by key
+     */
+    private static Map<String, String> index(List<String> usernames) {
+        Map<String, String> index = new LinkedHashMap<>();
+        if (usernames != null) {
+            for (String username : usernames) {
+                index.putIfAbsent(username.toLowerCase(Locale.ROOT), username);
+            }
+        }
+        return index;
+    }
+}
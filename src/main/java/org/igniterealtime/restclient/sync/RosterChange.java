@@ -0,0 +1,112 @@
+package org.igniterealtime.restclient.sync;
+
+import java.util.concurrent.CompletableFuture;
+
+import jakarta.ws.rs.core.Response;
+
+import org.igniterealtime.restclient.AsyncRestApiClient;
+import org.igniterealtime.restclient.entity.RosterItemEntity;
+
+/**
+ * One call bringing the roster of a user to its desired state.
+ */
+public final class RosterChange {
+
+    /**
+     * The kind of change.
+     */
+    public enum Type {
+
+        /**
+         * A roster item is added.
+         */
+        ADD,
+
+        /**
+         * A roster item is replaced.
+         */
+        UPDATE,
+
+        /**
+         * A roster item is deleted.
+         */
+        DELETE
+    }
+
+    /**
+     * The type.
+     */
+    private final Type type;
+
+    /**
+     * The owner of the roster.
+     */
+    private final String username;
+
+    /**
+     * The roster item; for a deletion the current one.
+     */
+    private final RosterItemEntity item;
+
+    /**
+     * Instantiates a new roster change.
+     *
+     * @param type the type
+     * @param username the owner of the roster
+     * @param item the roster item
+     */
+    public RosterChange(Type type, String username, RosterItemEntity item) {
+        this.type = type;
+        this.username = username;
+        this.item = item;
+    }
+
+    /**
+     * Sends the change.
+     *
+     * @param client the client
+     * @return the future response
+     */
+    CompletableFuture<Response> send(AsyncRestApiClient client) {
+        switch (type) {
+            case ADD:
+                return client.addRosterEntry(username, item);
+            case UPDATE:
+                return client.updateRosterEntry(username, item);
+            default:
+                return client.deleteRosterEntry(username, item.getJid());
+        }
+    }
+
+    /**
+     * Gets the type.
+     *
+     * @return the type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the owner of the roster.
+     *
+     * @return the username
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Gets the roster item; for a deletion the current one.
+     *
+     * @return the item
+     */
+    public RosterItemEntity getItem() {
+        return item;
+    }
+
+    @Override
+    public String toString() {
+        return "RosterChange [" + type + " " + username + " " + item.getJid() + "]";
+    }
+}
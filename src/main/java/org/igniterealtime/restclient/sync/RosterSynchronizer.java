@@ -0,0 +1,146 @@
+package org.igniterealtime.restclient.sync;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+import org.igniterealtime.restclient.AsyncRestApiClient;
+import org.igniterealtime.restclient.Endpoint;
+import org.igniterealtime.restclient.RestApiClient;
+import org.igniterealtime.restclient.entity.RosterEntities;
+import org.igniterealtime.restclient.entity.RosterItemEntity;
+
+/**
+ * Brings the rosters of many users to a desired state, for instance a shared contact list. Every roster is fetched,
+ * diffed by JID against the desired items, and only the additions, updates and deletions needed are sent, with a bounded
+ * number of calls in flight across all users.
+ * <p>
+ * An item is updated when its nickname, subscription type or set of groups differs. JIDs are compared ignoring case.
+ * Users mapped to a null list are not touched, an empty list clears their roster.
+ */
+public final class RosterSynchronizer {
+
+    /**
+     * The client.
+     */
+    private final RestApiClient client;
+
+    /**
+     * The options.
+     */
+    private final SyncOptions options;
+
+    /**
+     * Instantiates a new roster synchronizer.
+     *
+     * @param client the client
+     * @param options the options
+     */
+    public RosterSynchronizer(RestApiClient client, SyncOptions options) {
+        this.client = client;
+        this.options = options;
+    }
+
+    /**
+     * Synchronizes rosters.
+     *
+     * @param desired the desired roster items by username
+     * @return the sync result
+     */
+    public SyncResult<RosterChange> sync(Map<String, List<RosterItemEntity>> desired) {
+        return sync(desired.entrySet());
+    }
+
+    /**
+     * Synchronizes rosters read lazily, so the desired state of every user does not have to be held in memory. Users
+     * whose roster cannot be fetched, including unknown ones, are reported and left alone.
+     *
+     * @param desired the desired roster items by username
+     * @return the sync result
+     */
+    public SyncResult<RosterChange> sync(Iterable<Map.Entry<String, List<RosterItemEntity>>> desired) {
+        AsyncRestApiClient async = client.async();
+        return new SyncRunner<Map.Entry<String, List<RosterItemEntity>>, RosterEntities, RosterChange>(options,
+                Map.Entry::getKey,
+                entry -> client.getRestClient().getAsync(Endpoint.ROSTER, entry.getKey()),
+                (entry, current, changes) -> plan(entry.getKey(), entry.getValue(), current.getRoster(), changes),
+                change -> change.send(async)).run(desired);
+    }
+
+    /**
+     * Computes the changes bringing a roster to its desired state.
+     *
+     * @param username the owner of the roster
+     * @param desired the desired items, null to leave the roster alone
+     * @param current the current items, may be null
+     * @param changes collects the changes
+     * @return the number of calls a blind loop over every desired entry would have sent
+     */
+    static int plan(String username, List<RosterItemEntity> desired, List<RosterItemEntity> current,
+            List<RosterChange> changes) {
+        if (desired == null) {
+            return 0;
+        }
+        Map<String, RosterItemEntity> have = index(current);
+        Map<String, RosterItemEntity> want = index(desired);
+        int blindCalls = want.size();
+        for (Map.Entry<String, RosterItemEntity> entry : want.entrySet()) {
+            RosterItemEntity existing = have.get(entry.getKey());
+            if (existing == null) {
+                changes.add(new RosterChange(RosterChange.Type.ADD, username, entry.getValue()));
+            } else if (!same(existing, entry.getValue())) {
+                changes.add(new RosterChange(RosterChange.Type.UPDATE, username, entry.getValue()));
+            }
+        }
+        for (Map.Entry<String, RosterItemEntity> entry : have.entrySet()) {
+            if (!want.containsKey(entry.getKey())) {
+                changes.add(new RosterChange(RosterChange.Type.DELETE, username, entry.getValue()));
+                blindCalls++;
+            }
+        }
+        return blindCalls;
+    }
+
+    /**
+     * Checks if two items with the same JID are equal.
+     *
+     * @param current the current item
+     * @param desired the desired item
+     * @return true, if nickname, subscription type and groups match
+     */
+    private static boolean same(RosterItemEntity current, RosterItemEntity desired) {
+        return Objects.equals(current.getNickname(), desired.getNickname())
+                && current.getSubscriptionType() == desired.getSubscriptionType()
+                && groups(current).equals(groups(desired));
+    }
+
+    /**
+     * Gets the groups of an item as a set.
+     *
+     * @param item the item
+     * @return the groups
+     */
+    private static HashSet<String> groups(RosterItemEntity item) {
+        return new HashSet<>(item.getGroups() != null ? item.getGroups() : Collections.emptyList());
+    }
+
+    /**
+     * Indexes items by their lower case JID, dropping duplicates.
+     *
+     * @param items the items, may be null
+     * @return the items by key
+     */
+    private static Map<String, RosterItemEntity> index(List<RosterItemEntity> items) {
+        Map<String, RosterItemEntity> index = new LinkedHashMap<>();
+        if (items != null) {
+            for (RosterItemEntity item : items) {
+                index.putIfAbsent(item.getJid().toLowerCase(Locale.ROOT), item);
+            }
+        }
+        return index;
+    }
+}
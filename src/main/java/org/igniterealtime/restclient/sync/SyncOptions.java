@@ -0,0 +1,132 @@
+package org.igniterealtime.restclient.sync;
+
+import org.igniterealtime.restclient.bulk.BulkOptions;
+
+/**
+ * The Class SyncOptions.
+ */
+public final class SyncOptions {
+
+    /**
+     * The strategy.
+     */
+    private final SyncStrategy strategy;
+
+    /**
+     * The maximum number of requests in flight.
+     */
+    private final int concurrency;
+
+    /**
+     * The Constructor.
+     *
+     * @param builder the builder
+     */
+    private SyncOptions(SyncOptionsBuilder builder) {
+        this.strategy = builder.strategy;
+        this.concurrency = builder.concurrency;
+    }
+
+    /**
+     * Gets the default options.
+     *
+     * @return the sync options
+     */
+    public static SyncOptions defaults() {
+        return new SyncOptionsBuilder().build();
+    }
+
+    /**
+     * Gets the strategy.
+     *
+     * @return the strategy
+     */
+    public SyncStrategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Gets the maximum number of requests in flight.
+     *
+     * @return the concurrency
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Checks if changes are sent as single calls rather than as a full update.
+     *
+     * @param changes the number of changes
+     * @return true, if fine grained
+     */
+    boolean isFineGrained(int changes) {
+        switch (strategy) {
+            case FINE_GRAINED:
+                return true;
+            case FULL_UPDATE:
+                return false;
+            default:
+                return changes <= concurrency;
+        }
+    }
+
+    /**
+     * Gets the options of the bulk executor sending single calls.
+     *
+     * @return the bulk options
+     */
+    BulkOptions toBulkOptions() {
+        return new BulkOptions.BulkOptionsBuilder().concurrency(concurrency).build();
+    }
+
+    /**
+     * The Class SyncOptionsBuilder.
+     */
+    public static class SyncOptionsBuilder {
+
+        /**
+         * The strategy.
+         */
+        private SyncStrategy strategy = SyncStrategy.AUTO;
+
+        /**
+         * The concurrency.
+         */
+        private int concurrency = 8;
+
+        /**
+         * How changes are applied. Defaults to {@link SyncStrategy#AUTO}.
+         *
+         * @param strategy the strategy
+         * @return the sync options builder
+         */
+        public SyncOptionsBuilder strategy(SyncStrategy strategy) {
+            this.strategy = strategy;
+            return this;
+        }
+
+        /**
+         * Maximum number of requests in flight. Defaults to 8.
+         *
+         * @param concurrency the concurrency
+         * @return the sync options builder
+         */
+        public SyncOptionsBuilder concurrency(int concurrency) {
+            if (concurrency < 1) {
+                throw new IllegalArgumentException("The concurrency must be at least 1");
+            }
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        /**
+         * Builds the.
+         *
+         * @return the sync options
+         */
+        public SyncOptions build() {
+            return new SyncOptions(this);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.igniterealtime.restclient.sync;
+
+import java.util.List;
+import java.util.Map;
+
+import org.igniterealtime.restclient.bulk.BulkItemResult;
+
+/**
+ * The Class SyncResult.
+ *
+ * @param <C> the change type
+ */
+public final class SyncResult<C> {
+
+    /**
+     * The number of entities examined.
+     */
+    private final int entities;
+
+    /**
+     * The number of entities already in the desired state.
+     */
+    private final int unchanged;
+
+    /**
+     * The number of calls sent.
+     */
+    private final long calls;
+
+    /**
+     * The number of calls a blind loop over every desired entry would have sent on top.
+     */
+    private final long callsAvoided;
+
+    /**
+     * The changes that could not be applied.
+     */
+    private final List<BulkItemResult<C>> failures;
+
+    /**
+     * The failures to fetch the current state, by entity name.
+     */
+    private final Map<String, Throwable> fetchFailures;
+
+    /**
+     * Instantiates a new sync result.
+     *
+     * @param entities the entities
+     * @param unchanged the unchanged entities
+     * @param calls the calls
+     * @param callsAvoided the calls avoided
+     * @param failures the failures
+     * @param fetchFailures the fetch failures
+     */
+    public SyncResult(int entities, int unchanged, long calls, long callsAvoided, List<BulkItemResult<C>> failures,
+            Map<String, Throwable> fetchFailures) {
+        this.entities = entities;
+        this.unchanged = unchanged;
+        this.calls = calls;
+        this.callsAvoided = callsAvoided;
+        this.failures = failures;
+        this.fetchFailures = fetchFailures;
+    }
+
+    /**
+     * Gets the number of entities examined.
+     *
+     * @return the entities
+     */
+    public int getEntities() {
+        return entities;
+    }
+
+    /**
+     * Gets the number of entities already in the desired state.
+     *
+     * @return the unchanged
+     */
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    /**
+     * Gets the number of calls sent to apply the changes, not counting the fetches.
+     *
+     * @return the calls
+     */
+    public long getCalls() {
+        return calls;
+    }
+
+    /**
+     * Gets the number of calls saved compared to blindly sending every desired entry.
+     *
+     * @return the calls avoided
+     */
+    public long getCallsAvoided() {
+        return callsAvoided;
+    }
+
+    /**
+     * Gets the changes that could not be applied.
+     *
+     * @return the failures
+     */
+    public List<BulkItemResult<C>> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Gets the entities whose current state could not be fetched; they were left untouched.
+     *
+     * @return the fetch failures by entity name
+     */
+    public Map<String, Throwable> getFetchFailures() {
+        return fetchFailures;
+    }
+
+    /**
+     * Checks if every entity was fetched and every change applied.
+     *
+     * @return true, if successful
+     */
+    public boolean isSuccessful() {
+        return failures.isEmpty() && fetchFailures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "SyncResult [entities=" + entities + ", unchanged=" + unchanged + ", calls=" + calls
+                + ", callsAvoided=" + callsAvoided + ", failures=" + failures.size() + ", fetchFailures="
+                + fetchFailures.size() + "]";
+    }
+}
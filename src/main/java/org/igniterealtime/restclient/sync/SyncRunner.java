@@ -0,0 +1,174 @@
+package org.igniterealtime.restclient.sync;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+import jakarta.ws.rs.core.Response;
+
+import org.igniterealtime.restclient.bulk.BulkExecutor;
+import org.igniterealtime.restclient.bulk.BulkItemResult;
+import org.igniterealtime.restclient.bulk.BulkOutcome;
+import org.igniterealtime.restclient.bulk.BulkResult;
+
+/**
+ * Synchronizes many entities in batches. The current state of a batch is fetched in parallel, diffed against the
+ * desired state, and the resulting changes of the whole batch are sent through one {@link BulkExecutor}, so the
+ * concurrency cap holds across entities and only one batch is held in memory.
+ *
+ * @param <D> the desired state type
+ * @param <S> the current state type
+ * @param <C> the change type
+ */
+final class SyncRunner<D, S, C> {
+
+    /**
+     * The number of entities fetched and diffed before their changes are sent.
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * Diffs one entity.
+     *
+     * @param <D> the desired state type
+     * @param <S> the current state type
+     * @param <C> the change type
+     */
+    interface Planner<D, S, C> {
+
+        /**
+         * Adds the changes bringing an entity from its current to its desired state.
+         *
+         * @param desired the desired state
+         * @param current the current state
+         * @param changes collects the changes
+         * @return the number of calls a blind loop over every desired entry would have sent
+         */
+        int plan(D desired, S current, List<C> changes);
+    }
+
+    /**
+     * The options.
+     */
+    private final SyncOptions options;
+
+    /**
+     * Gets the name of an entity.
+     */
+    private final Function<? super D, String> name;
+
+    /**
+     * Fetches the current state of an entity.
+     */
+    private final Function<? super D, CompletableFuture<S>> fetch;
+
+    /**
+     * The planner.
+     */
+    private final Planner<D, S, C> planner;
+
+    /**
+     * Sends a change.
+     */
+    private final Function<? super C, CompletableFuture<Response>> apply;
+
+    /**
+     * Instantiates a new sync runner.
+     *
+     * @param options the options
+     * @param name gets the name of an entity
+     * @param fetch fetches the current state of an entity
+     * @param planner the planner
+     * @param apply sends a change
+     */
+    SyncRunner(SyncOptions options, Function<? super D, String> name, Function<? super D, CompletableFuture<S>> fetch,
+            Planner<D, S, C> planner, Function<? super C, CompletableFuture<Response>> apply) {
+        this.options = options;
+        this.name = name;
+        this.fetch = fetch;
+        this.planner = planner;
+        this.apply = apply;
+    }
+
+    /**
+     * Synchronizes the entities.
+     *
+     * @param desired the desired states
+     * @return the sync result
+     */
+    SyncResult<C> run(Iterable<? extends D> desired) {
+        int entities = 0;
+        int unchanged = 0;
+        long calls = 0;
+        long blindCalls = 0;
+        List<BulkItemResult<C>> failures = new ArrayList<>();
+        Map<String, Throwable> fetchFailures = new LinkedHashMap<>();
+
+        Iterator<? extends D> iterator = desired.iterator();
+        while (iterator.hasNext()) {
+            List<D> batch = new ArrayList<>();
+            while (iterator.hasNext() && batch.size() < BATCH_SIZE) {
+                batch.add(iterator.next());
+            }
+            List<CompletableFuture<S>> fetched = fetchAll(batch);
+            List<C> changes = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                D item = batch.get(i);
+                S current;
+                try {
+                    current = fetched.get(i).join();
+                } catch (CompletionException e) {
+                    fetchFailures.put(name.apply(item), e.getCause() != null ? e.getCause() : e);
+                    continue;
+                }
+                int before = changes.size();
+                blindCalls += planner.plan(item, current, changes);
+                if (changes.size() == before) {
+                    unchanged++;
+                }
+            }
+            entities += batch.size();
+            if (!changes.isEmpty()) {
+                BulkResult<C> result = new BulkExecutor(options.toBulkOptions()).run(changes, apply);
+                calls += changes.size();
+                for (BulkItemResult<C> item : result.getResults()) {
+                    if (item.getOutcome() != BulkOutcome.CREATED) {
+                        failures.add(item);
+                    }
+                }
+            }
+        }
+        return new SyncResult<>(entities, unchanged, calls, Math.max(0, blindCalls - calls), failures,
+                fetchFailures);
+    }
+
+    /**
+     * Fetches the current state of a batch with a bounded number of requests in flight.
+     *
+     * @param batch the batch
+     * @return the completed futures, in batch order
+     */
+    private List<CompletableFuture<S>> fetchAll(List<D> batch) {
+        Semaphore permits = new Semaphore(options.getConcurrency());
+        List<CompletableFuture<S>> futures = new ArrayList<>(batch.size());
+        for (D item : batch) {
+            permits.acquireUninterruptibly();
+            CompletableFuture<S> future;
+            try {
+                future = fetch.apply(item);
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            future.whenComplete((value, error) -> permits.release());
+            futures.add(future);
+        }
+        permits.acquireUninterruptibly(options.getConcurrency());
+        return futures;
+    }
+}
@@ -0,0 +1,24 @@
+package org.igniterealtime.restclient.sync;
+
+/**
+ * How a synchronization applies the changes it found.
+ */
+public enum SyncStrategy {
+
+    /**
+     * Sends one call per change if they all fit in one wave of parallel requests, otherwise replaces the whole entity
+     * with a single update.
+     */
+    AUTO,
+
+    /**
+     * Always sends one call per change.
+     */
+    FINE_GRAINED,
+
+    /**
+     * Always replaces the whole entity with a single update.
+     */
+    FULL_UPDATE
+
+}